@@ -0,0 +1,55 @@
+// Нагрузка на сводки и списки: сравнение платформенных и виртуальных потоков.
+//   k6 run -e BASE_URL=http://localhost:8080 -e EMAIL=... -e PASSWORD=... load-test/summary-and-listing.js
+// Прогон дважды на одних и тех же данных: VIRTUAL_THREADS_ENABLED=false и =true (см. README).
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const YEAR = __ENV.YEAR || '2024';
+const MONTH = __ENV.MONTH || '3';
+
+export const options = {
+    scenarios: {
+        ramp: {
+            executor: 'ramping-vus',
+            startVUs: 10,
+            stages: [
+                { duration: '30s', target: 100 },
+                { duration: '1m', target: 400 },
+                { duration: '1m', target: 400 },
+                { duration: '15s', target: 0 },
+            ],
+        },
+    },
+    thresholds: {
+        'http_req_duration{endpoint:summary_month}': ['p(95)<500'],
+        'http_req_duration{endpoint:expenses_month}': ['p(95)<500'],
+    },
+};
+
+export function setup() {
+    const res = http.post(`${BASE_URL}/api/auth/login`,
+        JSON.stringify({ email: __ENV.EMAIL, password: __ENV.PASSWORD }),
+        { headers: { 'Content-Type': 'application/json' } });
+    check(res, { 'login 200': (r) => r.status === 200 });
+    return { token: res.json('token') };
+}
+
+export default function (data) {
+    const params = (endpoint) => ({
+        headers: { Authorization: `Bearer ${data.token}` },
+        tags: { endpoint },
+    });
+
+    const responses = http.batch([
+        ['GET', `${BASE_URL}/api/summary/me/month/${YEAR}/${MONTH}`, null, params('summary_month')],
+        ['GET', `${BASE_URL}/api/summary/me/monthly/all`, null, params('summary_all')],
+        ['GET', `${BASE_URL}/api/expenses/me/month/${YEAR}/${MONTH}?page=0&size=20`, null, params('expenses_month')],
+        ['GET', `${BASE_URL}/api/expenses/me/cursor?size=20`, null, params('expenses_cursor')],
+    ]);
+
+    responses.forEach((r) => check(r, {
+        'status 200': (res) => res.status === 200,
+        'no 503': (res) => res.status !== 503,
+    }));
+}
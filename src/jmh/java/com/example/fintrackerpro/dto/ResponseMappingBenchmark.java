@@ -0,0 +1,93 @@
+package com.example.fintrackerpro.dto;
+
+import com.example.fintrackerpro.entity.expense.Expense;
+import com.example.fintrackerpro.entity.income.Income;
+import com.example.fintrackerpro.entity.user.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Маппинг сущностей в DTO и сериализация страницы так, как её отдают контроллеры. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseMappingBenchmark {
+
+    @Param({"20", "100"})
+    public int pageSize;
+
+    private List<Expense> expenses;
+    private List<Income> incomes;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        // Те же модули и настройки дат, что и у ObjectMapper в Spring Boot
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        User user = User.builder().id(1L).userName("bench").email("bench@example.com").build();
+        LocalDateTime date = LocalDateTime.of(2024, 3, 15, 12, 0);
+
+        expenses = new ArrayList<>();
+        incomes = new ArrayList<>();
+        for (long i = 0; i < pageSize; i++) {
+            expenses.add(Expense.builder()
+                    .id(i)
+                    .user(user)
+                    .amount(new BigDecimal("1234.56"))
+                    .category("Продукты")
+                    .description("Магазин у дома")
+                    .date(date.minusDays(i))
+                    .build());
+            incomes.add(Income.builder()
+                    .id(i)
+                    .user(user)
+                    .amount(new BigDecimal("50000.00"))
+                    .category("Работа")
+                    .source("Зарплата")
+                    .date(date.minusDays(i))
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public Page<ExpenseResponse> mapExpensePage() {
+        return toPage(expenses).map(ExpenseResponse::from);
+    }
+
+    @Benchmark
+    public Page<IncomeResponse> mapIncomePage() {
+        return toPage(incomes).map(IncomeResponse::from);
+    }
+
+    @Benchmark
+    public byte[] mapAndSerializeExpensePage() throws Exception {
+        return objectMapper.writeValueAsBytes(toPage(expenses).map(ExpenseResponse::from));
+    }
+
+    private <T> Page<T> toPage(List<T> content) {
+        return new PageImpl<>(content, PageRequest.of(0, pageSize), 10_000);
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.fintrackerpro.repository;
+
+import com.example.fintrackerpro.dto.ExpenseResponse;
+import com.example.fintrackerpro.entity.expense.Expense;
+import com.example.fintrackerpro.entity.user.User;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.jpa.HibernateHints;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Страница расходов через Hibernate на H2: managed-сущности + ExpenseResponse.from
+ * против JPQL "SELECT new ExpenseResponse(...)". Аллокации - gc.alloc.rate.norm из -prof gc.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ListProjectionBenchmark {
+
+    private static final String ENTITY_QUERY =
+            "SELECT e FROM Expense e WHERE e.user.id = :userId ORDER BY e.date DESC";
+    private static final String DTO_QUERY =
+            "SELECT new com.example.fintrackerpro.dto.ExpenseResponse(e.id, e.user.id, e.amount, e.category, e.description, e.date) " +
+                    "FROM Expense e WHERE e.user.id = :userId ORDER BY e.date DESC";
+
+    @Param({"100"})
+    public int pageSize;
+
+    private SessionFactory sessionFactory;
+    private Long userId;
+
+    @Setup
+    public void setUp() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(User.class)
+                .addAnnotatedClass(Expense.class)
+                .setProperty(AvailableSettings.JAKARTA_JDBC_URL,
+                        "jdbc:h2:mem:projection_bench;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DATABASE_TO_UPPER=false")
+                .setProperty(AvailableSettings.JAKARTA_JDBC_USER, "sa")
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .setProperty(AvailableSettings.JAKARTA_VALIDATION_MODE, "none")
+                .buildSessionFactory();
+
+        sessionFactory.inTransaction(session -> {
+            User user = User.builder()
+                    .userName("bench")
+                    .email("bench@example.com")
+                    .password("x")
+                    .displayCurrency("RUB")
+                    .build();
+            session.persist(user);
+            LocalDateTime date = LocalDateTime.of(2024, 3, 15, 12, 0);
+            for (int i = 0; i < pageSize; i++) {
+                session.persist(Expense.builder()
+                        .user(user)
+                        .amount(new BigDecimal("1234.56"))
+                        .category("Продукты")
+                        .description("Покупка продуктов " + i)
+                        .date(date.minusHours(i))
+                        .build());
+            }
+            userId = user.getId();
+        });
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    // Как было: сущности в persistence context, снимки для dirty checking, flush при коммите
+    @Benchmark
+    public List<ExpenseResponse> entitiesThenMap() {
+        return sessionFactory.fromTransaction(session -> {
+            List<Expense> rows = session.createSelectionQuery(ENTITY_QUERY, Expense.class)
+                    .setParameter("userId", userId)
+                    .setMaxResults(pageSize)
+                    .getResultList();
+            List<ExpenseResponse> page = new ArrayList<>(rows.size());
+            for (Expense row : rows) {
+                page.add(ExpenseResponse.from(row));
+            }
+            return page;
+        });
+    }
+
+    // Сущности, но read-only: без снимков, остаётся гидрация и прокси User
+    @Benchmark
+    public List<ExpenseResponse> readOnlyEntitiesThenMap() {
+        return sessionFactory.fromTransaction(session -> {
+            List<Expense> rows = session.createSelectionQuery(ENTITY_QUERY, Expense.class)
+                    .setParameter("userId", userId)
+                    .setHint(HibernateHints.HINT_READ_ONLY, true)
+                    .setMaxResults(pageSize)
+                    .getResultList();
+            List<ExpenseResponse> page = new ArrayList<>(rows.size());
+            for (Expense row : rows) {
+                page.add(ExpenseResponse.from(row));
+            }
+            return page;
+        });
+    }
+
+    // Как стало: только колонки ответа сразу в DTO
+    @Benchmark
+    public List<ExpenseResponse> dtoProjection() {
+        return sessionFactory.fromTransaction(session -> session
+                .createSelectionQuery(DTO_QUERY, ExpenseResponse.class)
+                .setParameter("userId", userId)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setMaxResults(pageSize)
+                .getResultList());
+    }
+}
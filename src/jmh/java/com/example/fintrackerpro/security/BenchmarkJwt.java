@@ -0,0 +1,27 @@
+package com.example.fintrackerpro.security;
+
+import org.springframework.test.util.ReflectionTestUtils;
+
+/** JwtUtil с тестовым секретом, собранный без Spring-контекста. */
+final class BenchmarkJwt {
+
+    static final String SECRET = "ZmludHJhY2tlci10ZXN0LXNlY3JldC1rZXktMzItYnl0ZXMtbG9uZyEhIQ==";
+    static final String ISSUER = "fintracker";
+    static final String AUDIENCE = "fintracker-frontend";
+
+    private BenchmarkJwt() {
+    }
+
+    static JwtUtil newJwtUtil() {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secretBase64", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "accessExpirationMs", 900_000L);
+        ReflectionTestUtils.setField(jwtUtil, "refreshExpirationMs", 604_800_000L);
+        ReflectionTestUtils.setField(jwtUtil, "issuer", ISSUER);
+        ReflectionTestUtils.setField(jwtUtil, "audience", AUDIENCE);
+        ReflectionTestUtils.setField(jwtUtil, "cacheMaxSize", 10_000L);
+        ReflectionTestUtils.setField(jwtUtil, "cacheMaxTtlSeconds", 900L);
+        jwtUtil.init();
+        return jwtUtil;
+    }
+}
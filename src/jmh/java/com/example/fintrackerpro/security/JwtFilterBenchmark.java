@@ -0,0 +1,96 @@
+package com.example.fintrackerpro.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.fintrackerpro.security.BenchmarkJwt.*;
+
+/**
+ * Проверка JWT в фильтре: старый путь (два разбора, ключ на каждый вызов)
+ * против одного разбора с готовым парсером и против кэша проверенных токенов.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    private JwtUtil jwtUtil;
+    private JwtAuthenticationFilter filter;
+    private String token;
+    private final FilterChain chain = (request, response) -> { };
+
+    @Setup
+    public void setUp() {
+        jwtUtil = BenchmarkJwt.newJwtUtil();
+
+        filter = new JwtAuthenticationFilter(jwtUtil);
+        token = jwtUtil.generateAccessToken(42L);
+    }
+
+    /** Как было: extractUserId + isExpired, каждый раз новый ключ и парсер. */
+    @Benchmark
+    public boolean legacyTwoParses() {
+        Claims first = Jwts.parser()
+                .verifyWith(legacySigningKey())
+                .requireIssuer(ISSUER)
+                .requireAudience(AUDIENCE)
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+        Long userId = Long.parseLong(first.getSubject());
+
+        Date exp = Jwts.parser()
+                .verifyWith(legacySigningKey())
+                .build()
+                .parseSignedClaims(token)
+                .getPayload()
+                .getExpiration();
+        return userId != null && exp.after(new Date());
+    }
+
+    @Benchmark
+    public JwtUtil.VerifiedToken singleParse() {
+        return jwtUtil.verifyUncached(token);
+    }
+
+    @Benchmark
+    public JwtUtil.VerifiedToken cachedVerify() {
+        return jwtUtil.verify(token);
+    }
+
+    @Benchmark
+    public Object filterCached() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/summary/me/used-months");
+        request.addHeader("Authorization", "Bearer " + token);
+        SecurityContextHolder.clearContext();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private static SecretKey legacySigningKey() {
+        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.fintrackerpro.service;
+
+import com.example.fintrackerpro.dto.CategoryResponse;
+import com.example.fintrackerpro.entity.category.Category;
+import com.example.fintrackerpro.entity.category.CategoryType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Сортировка категорий: сначала дефолтные в заданном порядке, затем пользовательские по дате. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CategorySortBenchmark {
+
+    private static final List<String> DEFAULTS = List.of(
+            "Продукты", "Коммунальные услуги", "Аренда", "Транспорт", "Кафе и рестораны", "Развлечения");
+
+    /** Количество пользовательских категорий сверх дефолтных. */
+    @Param({"0", "20", "100"})
+    public int customCategories;
+
+    private List<Category> categories;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime created = LocalDateTime.of(2024, 1, 1, 0, 0);
+        categories = new ArrayList<>();
+        long id = 1;
+        for (String name : DEFAULTS) {
+            categories.add(category(id++, name, true, created));
+        }
+        for (int i = 0; i < customCategories; i++) {
+            categories.add(category(id++, "Своя " + i, false, created.plusMinutes(customCategories - i)));
+        }
+    }
+
+    @Benchmark
+    public List<CategoryResponse> sortInDefaultOrder() {
+        return CategoryService.sortInDefaultOrder(categories, CategoryType.EXPENSE);
+    }
+
+    private static Category category(long id, String name, boolean system, LocalDateTime createdAt) {
+        return Category.builder()
+                .id(id)
+                .name(name)
+                .type(CategoryType.EXPENSE)
+                .system(system)
+                .createdAt(createdAt)
+                .build();
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.fintrackerpro.service;
+
+import com.example.fintrackerpro.dto.CategoryBreakdownDto;
+import com.example.fintrackerpro.dto.MonthlySummaryDto;
+import com.example.fintrackerpro.repository.CategoryTotalsRow;
+import com.example.fintrackerpro.repository.MonthlyTotalsRow;
+import com.example.fintrackerpro.repository.SummaryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Сборка помесячных сводок из строк GROUP BY (расчёт сбережений и нормы сбережений),
+ * без кэша и с попаданием в кэш, и разбивка по категориям за период. Репозиторий - мок Mockito с готовыми строками: меряется только Java-часть.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SummaryServiceBenchmark {
+
+    @Param({"12", "60"})
+    public int months;
+
+    private static final LocalDate PERIOD_FROM = LocalDate.of(2024, 1, 1);
+    private static final LocalDate PERIOD_TO = LocalDate.of(2024, 12, 31);
+
+    private SummaryService uncached;
+    private SummaryService cached;
+
+    @Setup
+    public void setUp() {
+        List<MonthlyTotalsRow> rows = new ArrayList<>();
+        YearMonth month = YearMonth.of(2024, 12);
+        for (int i = 0; i < months; i++) {
+            rows.add(row(month.minusMonths(i), new BigDecimal("85000.00"), new BigDecimal("61234.56")));
+        }
+        // stubOnly: мок не копит вызовы за миллионы итераций
+        SummaryRepository summaryRepository = mock(SummaryRepository.class, withSettings().stubOnly());
+        when(summaryRepository.findMonthlyTotalsByUser(1L)).thenReturn(rows);
+
+        // Разбивка за период: по 10 категорий расходов и 3 источника доходов на каждый месяц периода
+        List<CategoryTotalsRow> categoryRows = new ArrayList<>();
+        for (int i = 0; i < months; i++) {
+            categoryRows.add(categoryRow("INCOME", "Доход " + (i % 3), new BigDecimal("28333.33")));
+            categoryRows.add(categoryRow("EXPENSE", "Категория " + (i % 10), new BigDecimal("6123.45")));
+        }
+        when(summaryRepository.findCategoryTotalsByPeriod(eq(1L), any(), any())).thenReturn(categoryRows);
+
+        // TTL 0 - Caffeine ничего не хранит, каждый вызов идёт в загрузку
+        uncached = new SummaryService(null, null, summaryRepository, null,
+                new SummaryCache(new SimpleMeterRegistry(), 100, 0));
+        cached = new SummaryService(null, null, summaryRepository, null,
+                new SummaryCache(new SimpleMeterRegistry(), 100, 600));
+    }
+
+    @Benchmark
+    public List<MonthlySummaryDto> allMonthlySummaries() {
+        return uncached.getAllMonthlySummaries(1L);
+    }
+
+    @Benchmark
+    public List<MonthlySummaryDto> allMonthlySummariesCached() {
+        return cached.getAllMonthlySummaries(1L);
+    }
+
+    @Benchmark
+    public CategoryBreakdownDto categoryBreakdown() {
+        return uncached.getCategoryBreakdown(1L, PERIOD_FROM, PERIOD_TO);
+    }
+
+    private static MonthlyTotalsRow row(YearMonth month, BigDecimal income, BigDecimal expenses) {
+        return new MonthlyTotalsRow() {
+            @Override
+            public Integer getYear() {
+                return month.getYear();
+            }
+
+            @Override
+            public Integer getMonth() {
+                return month.getMonthValue();
+            }
+
+            @Override
+            public BigDecimal getTotalIncome() {
+                return income;
+            }
+
+            @Override
+            public BigDecimal getTotalExpenses() {
+                return expenses;
+            }
+
+            @Override
+            public Long getIncomeCount() {
+                return income != null ? 1L : 0L;
+            }
+
+            @Override
+            public Long getExpenseCount() {
+                return expenses != null ? 1L : 0L;
+            }
+        };
+    }
+
+    private static CategoryTotalsRow categoryRow(String type, String category, BigDecimal total) {
+        return new CategoryTotalsRow() {
+            @Override
+            public String getType() {
+                return type;
+            }
+
+            @Override
+            public String getCategory() {
+                return category;
+            }
+
+            @Override
+            public BigDecimal getTotal() {
+                return total;
+            }
+
+            @Override
+            public Long getCount() {
+                return 1L;
+            }
+        };
+    }
+}
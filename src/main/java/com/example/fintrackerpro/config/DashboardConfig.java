@@ -0,0 +1,34 @@
+package com.example.fintrackerpro.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class DashboardConfig {
+
+    /**
+     * Общий ограниченный пул для секций /api/dashboard. Меньше пула соединений Hikari,
+     * чтобы дашборды не выбирали все соединения у остальных запросов.
+     * Переполнение очереди - секция выполняется в потоке запроса (CallerRunsPolicy).
+     */
+    @Bean(name = "dashboardExecutor")
+    public ThreadPoolTaskExecutor dashboardExecutor(@Value("${app.dashboard.pool-size:6}") int poolSize,
+                                                    @Value("${app.dashboard.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("dashboard-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        // SecurityContext запроса нужен в секциях (маршрутизация чтений по пользователю)
+        executor.setTaskDecorator(task -> DelegatingSecurityContextRunnable.create(task, null));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.fintrackerpro.config;
+
+/**
+ * Ключи ReadReplicaRoutingDataSource.
+ */
+public enum DataSourceRole {
+    PRIMARY,
+    REPLICA
+}
@@ -0,0 +1,50 @@
+package com.example.fintrackerpro.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.time.Duration;
+
+/**
+ * Отдельный R2DBC-пул для /api/reactive. ConnectionFactory намеренно не публикуется бином:
+ * его наличие выключает JDBC DataSource в автоконфигурации Spring Boot.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.reactive", name = "enabled", havingValue = "true")
+public class ReactiveReadConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ReactiveReadDatabase reactiveReadDatabase(
+            @Value("${app.reactive.r2dbc.url}") String url,
+            @Value("${app.reactive.r2dbc.username:}") String username,
+            @Value("${app.reactive.r2dbc.password:}") String password,
+            @Value("${app.reactive.r2dbc.pool.initial-size:1}") int initialSize,
+            @Value("${app.reactive.r2dbc.pool.max-size:10}") int maxSize) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        ConnectionPool pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .name("reactive-read")
+                .initialSize(initialSize)
+                .maxSize(maxSize)
+                .maxIdleTime(Duration.ofMinutes(30))
+                .maxAcquireTime(Duration.ofSeconds(5))
+                .build());
+        return new ReactiveReadDatabase(pool, DatabaseClient.create(pool));
+    }
+
+    public record ReactiveReadDatabase(ConnectionPool pool, DatabaseClient client) {
+
+        public void dispose() {
+            pool.dispose();
+        }
+    }
+}
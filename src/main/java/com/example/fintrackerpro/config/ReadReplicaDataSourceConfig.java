@@ -0,0 +1,88 @@
+package com.example.fintrackerpro.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Два пула: primary (spring.datasource) и read-реплика (app.datasource.replica).
+ * Без app.datasource.replica.enabled=true остаётся стандартный DataSource Spring Boot.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.replica", name = "enabled", havingValue = "true")
+public class ReadReplicaDataSourceConfig {
+
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource")
+    public DataSourceProperties primaryDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryPool(@Qualifier("primaryDataSourceProperties") DataSourceProperties properties) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName("primary");
+        return pool;
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica")
+    public DataSourceProperties replicaDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariDataSource replicaPool(@Qualifier("replicaDataSourceProperties") DataSourceProperties properties) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName("replica");
+        pool.setReadOnly(true);
+        return pool;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("primaryPool") HikariDataSource primaryPool,
+                                               @Qualifier("replicaPool") HikariDataSource replicaPool,
+                                               @Value("${app.datasource.replica.max-lag:5s}") Duration maxLag,
+                                               MeterRegistry registry) {
+        return new ReplicaLagMonitor(new JdbcTemplate(primaryPool), new JdbcTemplate(replicaPool), maxLag, registry);
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(
+            @Value("${app.datasource.replica.read-your-writes-window:10s}") Duration window,
+            @Value("${app.datasource.replica.read-your-writes-max-users:100000}") long maxUsers) {
+        return new ReadYourWritesTracker(window, maxUsers);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryPool") HikariDataSource primaryPool,
+                                 @Qualifier("replicaPool") HikariDataSource replicaPool,
+                                 ReplicaLagMonitor lagMonitor,
+                                 ReadYourWritesTracker readYourWrites) {
+        ReadReplicaRoutingDataSource routing = new ReadReplicaRoutingDataSource(lagMonitor, readYourWrites);
+        routing.setTargetDataSources(Map.of(
+                DataSourceRole.PRIMARY, primaryPool,
+                DataSourceRole.REPLICA, replicaPool
+        ));
+        routing.setDefaultTargetDataSource(primaryPool);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.fintrackerpro.config;
+
+import com.example.fintrackerpro.security.CurrentUser;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Read-only транзакции - в реплику, всё остальное - в primary.
+ * Должен стоять за LazyConnectionDataSourceProxy: соединение берётся при первом запросе,
+ * когда флаг readOnly транзакции уже выставлен.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final ReadYourWritesTracker readYourWrites;
+
+    public ReadReplicaRoutingDataSource(ReplicaLagMonitor lagMonitor, ReadYourWritesTracker readYourWrites) {
+        this.lagMonitor = lagMonitor;
+        this.readYourWrites = readYourWrites;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Long userId = CurrentUser.idOrNull();
+
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (userId != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+                // Окно read-your-writes отсчитываем от коммита, а не от начала транзакции
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        readYourWrites.recordWrite(userId);
+                    }
+                });
+            }
+            return DataSourceRole.PRIMARY;
+        }
+
+        if (userId != null && readYourWrites.recentlyWrote(userId)) {
+            return DataSourceRole.PRIMARY;
+        }
+        return lagMonitor.isReplicaUsable() ? DataSourceRole.REPLICA : DataSourceRole.PRIMARY;
+    }
+}
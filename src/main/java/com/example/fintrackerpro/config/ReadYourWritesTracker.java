@@ -0,0 +1,30 @@
+package com.example.fintrackerpro.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+/**
+ * Пользователи, которые только что что-то записали. Их чтения в течение окна идут
+ * в primary, чтобы не увидеть на реплике состояние до собственной записи.
+ */
+public class ReadYourWritesTracker {
+
+    private final Cache<Long, Boolean> recentWriters;
+
+    public ReadYourWritesTracker(Duration window, long maxUsers) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(maxUsers)
+                .build();
+    }
+
+    public void recordWrite(Long userId) {
+        recentWriters.put(userId, Boolean.TRUE);
+    }
+
+    public boolean recentlyWrote(Long userId) {
+        return recentWriters.getIfPresent(userId) != null;
+    }
+}
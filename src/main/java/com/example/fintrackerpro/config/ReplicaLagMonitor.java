@@ -0,0 +1,81 @@
+package com.example.fintrackerpro.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+
+/**
+ * Периодически меряет отставание реплики относительно primary. Пока отставание больше допустимого
+ * или реплика недоступна, read-only транзакции уходят в primary.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private static final Tags TAGS = Tags.of("service", "fintracker-api", "env", "prod");
+
+    // Позиция WAL на primary к началу проверки
+    static final String PRIMARY_LSN_SQL = "SELECT CAST(pg_current_wal_lsn() AS text)";
+
+    // Реплика воспроизвела всё, что было на primary к началу проверки, - отставания нет.
+    // Иначе - возраст последней воспроизведённой транзакции: если WAL receiver отвалился или встал,
+    // receive = replay, но primary уходит вперёд, и отставание растёт, а не обнуляется.
+    // Если это не standby (две независимые базы локально), отставание считаем нулевым.
+    static final String LAG_SQL = """
+            SELECT CASE
+                       WHEN NOT pg_is_in_recovery() THEN 0
+                       WHEN pg_last_wal_replay_lsn() >= CAST(? AS pg_lsn) THEN 0
+                       ELSE COALESCE(CAST(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) AS float8),
+                                     CAST('Infinity' AS float8))
+                   END
+            """;
+
+    private final JdbcTemplate primaryJdbc;
+    private final JdbcTemplate replicaJdbc;
+    private final double maxLagSeconds;
+
+    // До первой успешной проверки реплика не используется
+    private volatile boolean usable;
+    private volatile double lagSeconds = Double.NaN;
+
+    public ReplicaLagMonitor(JdbcTemplate primaryJdbc, JdbcTemplate replicaJdbc, Duration maxLag,
+                             MeterRegistry registry) {
+        this.primaryJdbc = primaryJdbc;
+        this.replicaJdbc = replicaJdbc;
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+        Gauge.builder("fintracker_datasource_replica_lag_seconds", this, m -> m.lagSeconds)
+                .tags(TAGS)
+                .description("Отставание read-реплики от primary, NaN - отставание не измерить")
+                .register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval-ms:1000}")
+    public void check() {
+        boolean wasUsable = usable;
+        try {
+            String primaryLsn = primaryJdbc.queryForObject(PRIMARY_LSN_SQL, String.class);
+            Double lag = replicaJdbc.queryForObject(LAG_SQL, Double.class, primaryLsn);
+            lagSeconds = lag == null ? 0 : lag;
+            usable = lagSeconds <= maxLagSeconds;
+        } catch (DataAccessException e) {
+            lagSeconds = Double.NaN;
+            usable = false;
+        }
+        if (wasUsable != usable) {
+            if (usable) {
+                log.info("✅ Read replica enabled: lag={}s", lagSeconds);
+            } else {
+                log.warn("⚠️ Read replica disabled, reads go to primary: lag={}s, max={}s", lagSeconds, maxLagSeconds);
+            }
+        }
+    }
+
+    public boolean isReplicaUsable() {
+        return usable;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.fintrackerpro.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Режим spring.threads.virtual.enabled=true. Tomcat, @Async и @Scheduled Spring Boot
+ * переводит на виртуальные потоки сам; здесь - ограничение ожидания соединения из пула.
+ * Виртуальных потоков может быть тысячи, а соединений - maximum-pool-size, поэтому
+ * пул и есть лимит параллелизма: кто не дождался соединения за db-acquire-timeout, получает 503.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+@Slf4j
+public class VirtualThreadsConfig {
+
+    @Bean
+    static BeanPostProcessor hikariAcquireTimeoutPostProcessor(
+            @Value("${app.virtual-threads.db-acquire-timeout-ms:2000}") long acquireTimeoutMs) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource pool) {
+                    pool.setConnectionTimeout(acquireTimeoutMs);
+                    log.info("🧵 Virtual threads: pool {} size={}, acquire timeout={}ms",
+                            beanName, pool.getMaximumPoolSize(), acquireTimeoutMs);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -1,5 +1,8 @@
 package com.example.fintrackerpro.controller;
 
+import com.example.fintrackerpro.dto.CategoryMergeRequest;
+import com.example.fintrackerpro.dto.CategoryRemapResponse;
+import com.example.fintrackerpro.dto.CategoryRenameRequest;
 import com.example.fintrackerpro.dto.CategoryRequest;
 import com.example.fintrackerpro.dto.CategoryResponse;
 import com.example.fintrackerpro.entity.category.CategoryType;
@@ -53,4 +56,26 @@ public class CategoryController {
         categoryService.deleteCategory(userId, categoryId);
         return ResponseEntity.noContent().build();
     }
+
+    // Переименование: подписи всех транзакций категории обновляются одним UPDATE
+    @PatchMapping("/{categoryId}")
+    public ResponseEntity<CategoryRemapResponse> renameCategory(
+            @PathVariable Long categoryId,
+            @Valid @RequestBody CategoryRenameRequest request,
+            Authentication auth
+    ) {
+        Long userId = CurrentUser.id(auth);
+        return ResponseEntity.ok(categoryService.renameCategory(userId, categoryId, request));
+    }
+
+    // Слияние: транзакции переносятся в targetId, категория categoryId удаляется
+    @PostMapping("/{categoryId}/merge")
+    public ResponseEntity<CategoryRemapResponse> mergeCategory(
+            @PathVariable Long categoryId,
+            @Valid @RequestBody CategoryMergeRequest request,
+            Authentication auth
+    ) {
+        Long userId = CurrentUser.id(auth);
+        return ResponseEntity.ok(categoryService.mergeCategory(userId, categoryId, request.getTargetId()));
+    }
 }
@@ -0,0 +1,51 @@
+package com.example.fintrackerpro.controller;
+
+import com.example.fintrackerpro.dto.DashboardDto;
+import com.example.fintrackerpro.security.CurrentUser;
+import com.example.fintrackerpro.service.DashboardService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+
+@RestController
+@RequestMapping("/api/dashboard")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Dashboard", description = "Все данные дашборда одним запросом")
+@SecurityRequirement(name = "bearerAuth")
+public class DashboardController {
+
+    static final String SERVER_TIMING = "Server-Timing";
+
+    private final DashboardService dashboardService;
+
+    @Operation(summary = "Сводка, месяцы, категории, настройки и первые страницы операций (текущий пользователь)",
+            description = "Длительность каждой секции - в заголовке Server-Timing")
+    @GetMapping("/me")
+    public ResponseEntity<DashboardDto> getMyDashboard(@RequestParam int year,
+                                                       @RequestParam int month,
+                                                       Authentication auth) {
+        Long userId = CurrentUser.id(auth);
+        log.info("🧭 GET /api/dashboard/me?year={}&month={} (userId={})", year, month, userId);
+        DashboardService.Dashboard dashboard = dashboardService.getDashboard(userId, year, month);
+        return ResponseEntity.ok()
+                .header(SERVER_TIMING, serverTiming(dashboard.timingsMs()))
+                .body(dashboard.payload());
+    }
+
+    // summary;dur=12.3, months;dur=4.1, ...
+    static String serverTiming(Map<String, Double> timingsMs) {
+        StringJoiner header = new StringJoiner(", ");
+        timingsMs.forEach((name, ms) -> header.add(name + ";dur=" + String.format(Locale.ROOT, "%.1f", ms)));
+        return header.toString();
+    }
+}
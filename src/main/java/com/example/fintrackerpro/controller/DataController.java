@@ -1,5 +1,6 @@
 package com.example.fintrackerpro.controller;
 
+import com.example.fintrackerpro.dto.RollupDriftReport;
 import com.example.fintrackerpro.security.CurrentUser;
 import com.example.fintrackerpro.service.DataService;
 import com.example.fintrackerpro.service.MetricsService;
@@ -50,4 +51,14 @@ public class DataController {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
+
+    /**
+     * POST /api/data/me/rollup/rebuild - пересчитать помесячные итоги и показать расхождения
+     */
+    @PostMapping("/me/rollup/rebuild")
+    public ResponseEntity<RollupDriftReport> rebuildRollup(Authentication auth) {
+        Long userId = CurrentUser.id(auth);
+        log.info("🔁 POST /api/data/me/rollup/rebuild userId={}", userId);
+        return ResponseEntity.ok(dataService.rebuildRollup(userId));
+    }
 }
@@ -1,11 +1,13 @@
 package com.example.fintrackerpro.controller;
 
+import com.example.fintrackerpro.dto.CursorPage;
 import com.example.fintrackerpro.dto.ExpenseResponse;
 import com.example.fintrackerpro.entity.expense.Expense;
 import com.example.fintrackerpro.entity.expense.ExpenseRequest;
 import com.example.fintrackerpro.security.CurrentUser;
 import com.example.fintrackerpro.service.ExpenseService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -18,6 +20,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -71,16 +74,32 @@ public class ExpenseController {
         return ResponseEntity.ok(expenseService.getExpensesByUser(userId, pageable));
     }
 
+    @Operation(summary = "Получить расходы с курсорной пагинацией (текущий пользователь)",
+            description = "Без OFFSET и COUNT(*): следующая страница запрашивается по nextCursor из предыдущего ответа")
+    @GetMapping("/me/cursor")
+    public ResponseEntity<CursorPage<ExpenseResponse>> getMyExpensesByCursor(@RequestParam(required = false) String cursor,
+                                                                             @RequestParam(defaultValue = "10") int size,
+                                                                             Authentication auth) {
+        Long userId = CurrentUser.id(auth);
+        log.info("📤 GET /api/expenses/me/cursor (userId={})", userId);
+        return ResponseEntity.ok(expenseService.getExpensesByUserCursor(userId, cursor, size));
+    }
+
     @Operation(summary = "Получить расходы за месяц (текущий пользователь)")
     @GetMapping("/me/month/{year}/{month}")
-    public ResponseEntity<Page<ExpenseResponse>> getMyExpensesByMonth(@PathVariable int year,
-                                                                      @PathVariable int month,
-                                                                      @RequestParam(defaultValue = "0") int page,
-                                                                      @RequestParam(defaultValue = "10") int size,
-                                                                      Authentication auth) {
+    public ResponseEntity<Slice<ExpenseResponse>> getMyExpensesByMonth(@PathVariable int year,
+                                                                       @PathVariable int month,
+                                                                       @RequestParam(defaultValue = "0") int page,
+                                                                       @RequestParam(defaultValue = "10") int size,
+                                                                       @Parameter(description = "false - без COUNT(*): Slice без totalElements/totalPages (количество есть в сводке за месяц)")
+                                                                       @RequestParam(defaultValue = "true") boolean withTotal,
+                                                                       Authentication auth) {
         Long userId = CurrentUser.id(auth);
         Pageable pageable = PageRequest.of(page, size);
-        log.info("📤 GET /api/expenses/me/month/{}/{} (userId={})", year, month, userId);
+        log.info("📤 GET /api/expenses/me/month/{}/{} (userId={}, withTotal={})", year, month, userId, withTotal);
+        if (!withTotal) {
+            return ResponseEntity.ok(expenseService.getExpensesByUserAndMonthSlice(userId, year, month, pageable));
+        }
         return ResponseEntity.ok(expenseService.getExpensesByUserAndMonth(userId, year, month, pageable));
     }
 
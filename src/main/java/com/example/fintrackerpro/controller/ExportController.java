@@ -0,0 +1,68 @@
+package com.example.fintrackerpro.controller;
+
+import com.example.fintrackerpro.entity.category.CategoryType;
+import com.example.fintrackerpro.security.CurrentUser;
+import com.example.fintrackerpro.service.TransactionExportService;
+import com.example.fintrackerpro.service.TransactionFileFormat;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+@RestController
+@RequestMapping("/api/export")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Export", description = "Выгрузка всей истории операций")
+@SecurityRequirement(name = "bearerAuth")
+public class ExportController {
+
+    private final TransactionExportService exportService;
+
+    /**
+     * GET /api/export/me?type=income|expenses|all&format=csv|jsonl
+     */
+    @Operation(summary = "Выгрузить все операции (текущий пользователь)",
+            description = "Ответ стримится: CSV или JSON Lines, колонки совместимы с /api/import")
+    @GetMapping("/me")
+    public ResponseEntity<StreamingResponseBody> exportMine(@RequestParam(defaultValue = "all") String type,
+                                                            @RequestParam(defaultValue = "csv") String format,
+                                                            Authentication auth) {
+        Long userId = CurrentUser.id(auth);
+        log.info("📤 GET /api/export/me type={} format={} userId={}", type, format, userId);
+
+        List<CategoryType> types;
+        try {
+            types = TransactionExportService.typesOf(type);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(BAD_REQUEST, e.getMessage());
+        }
+        TransactionFileFormat fileFormat = TransactionFileFormat.fromParam(format);
+        exportService.checkUser(userId);
+
+        StreamingResponseBody body = out -> exportService.export(userId, types, fileFormat, out);
+        String filename = "fintracker-" + type.toLowerCase() + "." + fileFormat.extension();
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(fileFormat.contentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.fintrackerpro.controller;
+
+import com.example.fintrackerpro.dto.ImportReport;
+import com.example.fintrackerpro.entity.category.CategoryType;
+import com.example.fintrackerpro.security.CurrentUser;
+import com.example.fintrackerpro.service.TransactionFileFormat;
+import com.example.fintrackerpro.service.TransactionImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/import")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Import", description = "Массовый импорт операций (CSV / JSON Lines)")
+@SecurityRequirement(name = "bearerAuth")
+public class ImportController {
+
+    private final TransactionImportService importService;
+
+    @Operation(summary = "Импорт расходов",
+            description = "CSV с заголовком date,amount,category,description (разделитель , или ;) " +
+                    "или JSON Lines с теми же полями. Невалидные строки пропускаются и попадают в отчёт.")
+    @PostMapping(value = "/expenses", consumes = {"text/csv", "application/x-ndjson", "application/jsonl"})
+    public ResponseEntity<ImportReport> importExpenses(HttpServletRequest request, Authentication auth) throws IOException {
+        return importFor(CategoryType.EXPENSE, request, auth);
+    }
+
+    @Operation(summary = "Импорт доходов",
+            description = "CSV с заголовком date,amount,category,source (разделитель , или ;) " +
+                    "или JSON Lines с теми же полями. Невалидные строки пропускаются и попадают в отчёт.")
+    @PostMapping(value = "/incomes", consumes = {"text/csv", "application/x-ndjson", "application/jsonl"})
+    public ResponseEntity<ImportReport> importIncomes(HttpServletRequest request, Authentication auth) throws IOException {
+        return importFor(CategoryType.INCOME, request, auth);
+    }
+
+    private ResponseEntity<ImportReport> importFor(CategoryType type, HttpServletRequest request, Authentication auth)
+            throws IOException {
+        Long userId = CurrentUser.id(auth);
+        TransactionFileFormat format = TransactionFileFormat.fromContentType(request.getContentType());
+        log.info("📥 POST {} (userId={}, format={})", request.getRequestURI(), userId, format);
+        return ResponseEntity.ok(importService.importTransactions(userId, type, format, request.getInputStream()));
+    }
+}
@@ -1,11 +1,13 @@
 package com.example.fintrackerpro.controller;
 
+import com.example.fintrackerpro.dto.CursorPage;
 import com.example.fintrackerpro.dto.IncomeResponse;
 import com.example.fintrackerpro.entity.income.Income;
 import com.example.fintrackerpro.entity.income.IncomeRequest;
 import com.example.fintrackerpro.security.CurrentUser;
 import com.example.fintrackerpro.service.IncomeService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -18,6 +20,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -72,16 +75,32 @@ public class IncomeController {
         return ResponseEntity.ok(incomeService.getIncomesByUser(userId, pageable));
     }
 
+    @Operation(summary = "Получить доходы с курсорной пагинацией (текущий пользователь)",
+            description = "Без OFFSET и COUNT(*): следующая страница запрашивается по nextCursor из предыдущего ответа")
+    @GetMapping("/me/cursor")
+    public ResponseEntity<CursorPage<IncomeResponse>> getMyIncomesByCursor(@RequestParam(required = false) String cursor,
+                                                                           @RequestParam(defaultValue = "10") int size,
+                                                                           Authentication auth) {
+        Long userId = CurrentUser.id(auth);
+        log.info("📤 GET /api/incomes/me/cursor (userId={})", userId);
+        return ResponseEntity.ok(incomeService.getIncomesByUserCursor(userId, cursor, size));
+    }
+
     @Operation(summary = "Получить доходы за месяц (текущий пользователь)")
     @GetMapping("/me/month/{year}/{month}")
-    public ResponseEntity<Page<IncomeResponse>> getMyIncomesByMonth(@PathVariable int year,
-                                                                    @PathVariable int month,
-                                                                    @RequestParam(defaultValue = "0") int page,
-                                                                    @RequestParam(defaultValue = "10") int size,
-                                                                    Authentication auth) {
+    public ResponseEntity<Slice<IncomeResponse>> getMyIncomesByMonth(@PathVariable int year,
+                                                                     @PathVariable int month,
+                                                                     @RequestParam(defaultValue = "0") int page,
+                                                                     @RequestParam(defaultValue = "10") int size,
+                                                                     @Parameter(description = "false - без COUNT(*): Slice без totalElements/totalPages (количество есть в сводке за месяц)")
+                                                                     @RequestParam(defaultValue = "true") boolean withTotal,
+                                                                     Authentication auth) {
         Long userId = CurrentUser.id(auth);
         Pageable pageable = PageRequest.of(page, size);
-        log.info("📤 GET /api/incomes/me/month/{}/{} (userId={})", year, month, userId);
+        log.info("📤 GET /api/incomes/me/month/{}/{} (userId={}, withTotal={})", year, month, userId, withTotal);
+        if (!withTotal) {
+            return ResponseEntity.ok(incomeService.getIncomesByUserAndMonthSlice(userId, year, month, pageable));
+        }
         return ResponseEntity.ok(incomeService.getIncomesByUserAndMonth(userId, year, month, pageable));
     }
 
@@ -0,0 +1,75 @@
+package com.example.fintrackerpro.controller;
+
+import com.example.fintrackerpro.dto.CursorPage;
+import com.example.fintrackerpro.dto.ExpenseResponse;
+import com.example.fintrackerpro.dto.IncomeResponse;
+import com.example.fintrackerpro.dto.MonthlySummaryDto;
+import com.example.fintrackerpro.security.CurrentUser;
+import com.example.fintrackerpro.service.ReactiveReadService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Неблокирующие чтения для частого опроса дашборда. Аутентификация - тот же
+ * JwtAuthenticationFilter, что и для остального /api; userId берётся до подписки,
+ * пока SecurityContext ещё привязан к потоку запроса.
+ */
+@RestController
+@RequestMapping("/api/reactive")
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(prefix = "app.reactive", name = "enabled", havingValue = "true")
+@Tag(name = "Reactive read", description = "Неблокирующее чтение сводок и списков (R2DBC)")
+@SecurityRequirement(name = "bearerAuth")
+public class ReactiveReadController {
+
+    private final ReactiveReadService reactiveReadService;
+
+    @Operation(summary = "Финансовая сводка за месяц (текущий пользователь)")
+    @GetMapping("/summary/me/month/{year}/{month}")
+    public Mono<ResponseEntity<MonthlySummaryDto>> getMyMonthlySummary(@PathVariable int year,
+                                                                       @PathVariable int month,
+                                                                       Authentication auth) {
+        Long userId = CurrentUser.id(auth);
+        log.debug("📊 GET /api/reactive/summary/me/month/{}/{} (userId={})", year, month, userId);
+        return reactiveReadService.getMonthlySummary(userId, year, month).map(ResponseEntity::ok);
+    }
+
+    @Operation(summary = "Список использованных месяцев (текущий пользователь)")
+    @GetMapping("/summary/me/months")
+    public Mono<ResponseEntity<List<String>>> getMyUsedMonths(Authentication auth) {
+        Long userId = CurrentUser.id(auth);
+        log.debug("📅 GET /api/reactive/summary/me/months (userId={})", userId);
+        return reactiveReadService.getUsedMonths(userId).map(ResponseEntity::ok);
+    }
+
+    @Operation(summary = "Расходы с курсорной пагинацией (текущий пользователь)")
+    @GetMapping("/expenses/me")
+    public Mono<ResponseEntity<CursorPage<ExpenseResponse>>> getMyExpenses(@RequestParam(required = false) String cursor,
+                                                                           @RequestParam(defaultValue = "10") int size,
+                                                                           Authentication auth) {
+        Long userId = CurrentUser.id(auth);
+        log.debug("📤 GET /api/reactive/expenses/me (userId={})", userId);
+        return reactiveReadService.getExpensesByUserCursor(userId, cursor, size).map(ResponseEntity::ok);
+    }
+
+    @Operation(summary = "Доходы с курсорной пагинацией (текущий пользователь)")
+    @GetMapping("/incomes/me")
+    public Mono<ResponseEntity<CursorPage<IncomeResponse>>> getMyIncomes(@RequestParam(required = false) String cursor,
+                                                                         @RequestParam(defaultValue = "10") int size,
+                                                                         Authentication auth) {
+        Long userId = CurrentUser.id(auth);
+        log.debug("📥 GET /api/reactive/incomes/me (userId={})", userId);
+        return reactiveReadService.getIncomesByUserCursor(userId, cursor, size).map(ResponseEntity::ok);
+    }
+}
@@ -1,15 +1,14 @@
 package com.example.fintrackerpro.controller;
 
-import com.example.fintrackerpro.repository.UserRepository;
+import com.example.fintrackerpro.service.StatusSnapshotService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.boot.actuate.health.HealthEndpoint;
-import org.springframework.boot.actuate.info.InfoEndpoint;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.time.ZonedDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @RestController
@@ -22,17 +21,15 @@ public class StatusController {
     private static final DateTimeFormatter DATE_FMT =
             DateTimeFormatter.ofPattern("dd.MM.yyyy");
 
-    private final UserRepository userRepository;
-    private final HealthEndpoint healthEndpoint;
-    private final InfoEndpoint infoEndpoint;
+    private final StatusSnapshotService statusSnapshot;
 
+    // Эндпоинт публичный: только готовый снимок, без COUNT(*) и health-проверок на каждый запрос
     @GetMapping("/status")
     public Map<String, Object> status() {
-        long users = userRepository.count();
-        var health = healthEndpoint.health();
-        var info = infoSafe();
+        var snapshot = statusSnapshot.current();
+        var info = snapshot.info();
 
-        String rawStatus = health.getStatus().getCode();
+        String rawStatus = snapshot.status();
 
         // Версия из info.app.version (если есть)
         String version = null;
@@ -50,25 +47,20 @@ public class StatusController {
         String time = now.format(TIME_FMT);       // 15:32:10
         String date = now.format(DATE_FMT);       // 23.02.2026
 
-        return Map.of(
-                "message", "FinTrackerPro API is running",
-                "status", rawStatus,
-                "statusText", "UP".equalsIgnoreCase(rawStatus) ? "Работает" : "Проблемы",
-                "usersTotal", users,
-                "version", version,
-                "time", time,
-                "date", date,
-                "zone", MOSCOW_ZONE.toString(),
-                "info", info
-        );
-    }
-
-    @SuppressWarnings("unchecked")
-    private Map<String, Object> infoSafe() {
-        Object i = infoEndpoint.info();
-        if (i instanceof Map<?, ?> m) {
-            return (Map<String, Object>) m;
-        }
-        return Map.of();
+        // LinkedHashMap: version и usersTotal бывают null (нет info.app.version, снимок ещё не снят)
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("message", "FinTrackerPro API is running");
+        body.put("status", rawStatus);
+        body.put("statusText", "UP".equalsIgnoreCase(rawStatus) ? "Работает" : "Проблемы");
+        body.put("usersTotal", snapshot.usersTotal());
+        // По ним видно, насколько устарел снимок (например, COUNT не проходит при сбое базы)
+        body.put("refreshedAt", snapshot.refreshedAt());
+        body.put("usersCountedAt", snapshot.usersCountedAt());
+        body.put("version", version);
+        body.put("time", time);
+        body.put("date", date);
+        body.put("zone", MOSCOW_ZONE.toString());
+        body.put("info", info);
+        return body;
     }
 }
@@ -1,5 +1,8 @@
 package com.example.fintrackerpro.controller;
 
+import com.example.fintrackerpro.dto.CategoryBreakdownDto;
+import com.example.fintrackerpro.dto.CategoryMatrixDto;
+import com.example.fintrackerpro.entity.category.CategoryType;
 import com.example.fintrackerpro.dto.MonthlySummaryDto;
 import com.example.fintrackerpro.security.CurrentUser;
 import com.example.fintrackerpro.service.SummaryService;
@@ -10,12 +13,16 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 
 @RestController
@@ -44,6 +51,51 @@ public class SummaryController {
         return ResponseEntity.ok(summaryService.getMonthlySummary(userId, year, month));
     }
 
+    @Operation(summary = "Разбивка доходов и расходов по категориям за месяц (текущий пользователь)")
+    @GetMapping("/me/month/{year}/{month}/categories")
+    public ResponseEntity<CategoryBreakdownDto> getMyMonthlyCategories(
+            @PathVariable int year,
+            @PathVariable int month,
+            Authentication auth
+    ) {
+        Long userId = CurrentUser.id(auth);
+        log.info("📊 GET /api/summary/me/month/{}/{}/categories (userId={})", year, month, userId);
+        return ResponseEntity.ok(summaryService.getMonthlyCategoryBreakdown(userId, year, month));
+    }
+
+    @Operation(summary = "Разбивка доходов и расходов по категориям за период (текущий пользователь)",
+            description = "from и to включительно, формат yyyy-MM-dd")
+    @GetMapping("/me/categories")
+    public ResponseEntity<CategoryBreakdownDto> getMyCategories(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            Authentication auth
+    ) {
+        Long userId = CurrentUser.id(auth);
+        log.info("📊 GET /api/summary/me/categories?from={}&to={} (userId={})", from, to, userId);
+        return ResponseEntity.ok(summaryService.getCategoryBreakdown(userId, from, to));
+    }
+
+    @Operation(summary = "Матрица категория x месяц для графиков трендов (текущий пользователь)",
+            description = "from и to включительно, формат yyyy-MM; type = expenses | income. "
+                    + "values[c * months.length + m] в минимальных единицах (value / 10^scale)")
+    @GetMapping("/me/categories/matrix")
+    public ResponseEntity<CategoryMatrixDto> getMyCategoryMatrix(
+            @RequestParam String from,
+            @RequestParam String to,
+            @RequestParam(defaultValue = "expenses") String type,
+            Authentication auth
+    ) {
+        Long userId = CurrentUser.id(auth);
+        CategoryType categoryType = switch (type.toLowerCase()) {
+            case "income" -> CategoryType.INCOME;
+            case "expenses" -> CategoryType.EXPENSE;
+            default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Неизвестный type: " + type);
+        };
+        log.info("📊 GET /api/summary/me/categories/matrix?from={}&to={}&type={} (userId={})", from, to, type, userId);
+        return ResponseEntity.ok(summaryService.getCategoryMatrix(userId, categoryType, yearMonth(from), yearMonth(to)));
+    }
+
     @Operation(summary = "Получить список использованных месяцев (текущий пользователь)")
     @GetMapping("/me/months")
     public ResponseEntity<List<String>> getMyUsedMonths(Authentication auth) {
@@ -98,4 +150,12 @@ public class SummaryController {
         log.warn("Legacy monthly/all used: path userId={}, current userId={}", userId, current);
         return ResponseEntity.ok(summaryService.getAllMonthlySummaries(current));
     }
+
+    private static YearMonth yearMonth(String raw) {
+        try {
+            return YearMonth.parse(raw);
+        } catch (DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Некорректный месяц: " + raw + " (ожидается yyyy-MM)");
+        }
+    }
 }
@@ -0,0 +1,41 @@
+package com.example.fintrackerpro.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public class CategoryBreakdownDto {
+
+    // Период [from, to] включительно
+    private LocalDate from;
+    private LocalDate to;
+
+    private BigDecimal totalIncome;
+    private BigDecimal totalExpenses;
+
+    // По убыванию суммы
+    private List<CategoryShare> incomes;
+    private List<CategoryShare> expenses;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    @JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+    public static class CategoryShare {
+        private String category;
+        private BigDecimal total;
+        private long count;
+        // Доля от суммы своего типа (доходы или расходы), %
+        private BigDecimal sharePercent;
+    }
+}
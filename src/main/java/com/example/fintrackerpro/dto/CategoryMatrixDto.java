@@ -0,0 +1,33 @@
+package com.example.fintrackerpro.dto;
+
+import com.example.fintrackerpro.entity.category.CategoryType;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Матрица категория x месяц в компактном виде: параллельные массивы.
+ * values[c * months.size() + m] - сумма категории categories[c] за месяц months[m]
+ * в минимальных единицах (value / 10^scale), 0 - операций не было.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public class CategoryMatrixDto {
+
+    private CategoryType type;
+
+    // "2024-01", по возрастанию, без пропусков
+    private List<String> months;
+
+    // По убыванию суммы за весь период
+    private List<String> categories;
+
+    private int scale;
+
+    private long[] values;
+}
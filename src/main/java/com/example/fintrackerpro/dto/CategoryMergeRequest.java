@@ -0,0 +1,12 @@
+package com.example.fintrackerpro.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class CategoryMergeRequest {
+
+    // Категория, в которую переносятся транзакции; исходная удаляется
+    @NotNull(message = "Категория назначения обязательна")
+    private Long targetId;
+}
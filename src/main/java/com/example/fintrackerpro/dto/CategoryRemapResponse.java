@@ -0,0 +1,15 @@
+package com.example.fintrackerpro.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Результат переименования/слияния категории: итоговая категория и сколько транзакций перепривязано.
+ */
+@Data
+@Builder
+public class CategoryRemapResponse {
+
+    private CategoryResponse category;
+    private int transactionsUpdated;
+}
@@ -0,0 +1,13 @@
+package com.example.fintrackerpro.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class CategoryRenameRequest {
+
+    @NotBlank(message = "Название категории обязательно")
+    @Size(max = 50, message = "Название категории не длиннее 50 символов")
+    private String name;
+}
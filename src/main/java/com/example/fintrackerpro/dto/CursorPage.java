@@ -0,0 +1,21 @@
+package com.example.fintrackerpro.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Страница без общего количества: курсор на следующую выборку")
+public class CursorPage<T> {
+    private List<T> content;
+
+    @Schema(description = "Передать как ?cursor= для следующей страницы; null - данных больше нет")
+    private String nextCursor;
+
+    private boolean hasNext;
+}
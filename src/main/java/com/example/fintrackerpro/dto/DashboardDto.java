@@ -0,0 +1,23 @@
+package com.example.fintrackerpro.dto;
+
+import com.example.fintrackerpro.entity.user.UserSettingsDto;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Всё, что дашборд запрашивал отдельными вызовами при загрузке, одним ответом.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DashboardDto {
+    private MonthlySummaryDto summary;
+    private List<String> usedMonths;
+    private List<CategoryResponse> incomeCategories;
+    private List<CategoryResponse> expenseCategories;
+    private UserSettingsDto settings;
+    private CursorPage<IncomeResponse> incomes;
+    private CursorPage<ExpenseResponse> expenses;
+}
@@ -6,6 +6,7 @@ import lombok.*;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Data
 @NoArgsConstructor
@@ -20,6 +21,11 @@ public class ExpenseResponse {
     private String description;
     private LocalDate date;
 
+    // Для JPQL "SELECT new ...": date в БД - LocalDateTime
+    public ExpenseResponse(Long id, Long userId, BigDecimal amount, String category, String description, LocalDateTime date) {
+        this(id, userId, amount, category, description, date != null ? date.toLocalDate() : null);
+    }
+
     public static ExpenseResponse from(Expense x) {
         return ExpenseResponse.builder()
                 .id(x.getId())
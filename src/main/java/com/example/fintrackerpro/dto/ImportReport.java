@@ -0,0 +1,32 @@
+package com.example.fintrackerpro.dto;
+
+import com.example.fintrackerpro.entity.category.CategoryType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportReport {
+
+    private CategoryType type;
+    private long imported;
+    private long failed;
+
+    // Первые N ошибок; errorsTruncated = true, если ошибок было больше
+    private List<RowError> errors;
+    private boolean errorsTruncated;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private long line;
+        private String message;
+    }
+}
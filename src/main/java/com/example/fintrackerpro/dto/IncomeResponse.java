@@ -5,6 +5,7 @@ import lombok.*;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Data
 @NoArgsConstructor
@@ -18,6 +19,11 @@ public class IncomeResponse {
     private String source;
     private LocalDate date;
 
+    // Для JPQL "SELECT new ...": date в БД - LocalDateTime
+    public IncomeResponse(Long id, Long userId, BigDecimal amount, String category, String source, LocalDateTime date) {
+        this(id, userId, amount, category, source, date != null ? date.toLocalDate() : null);
+    }
+
     public static IncomeResponse from(Income x) {
         return IncomeResponse.builder()
                 .id(x.getId())
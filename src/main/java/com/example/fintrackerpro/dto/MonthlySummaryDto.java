@@ -33,4 +33,11 @@ public class MonthlySummaryDto {
     
     @JsonProperty("balance")
     private BigDecimal balance;
+
+    // Количество операций за месяц - заменяет totalElements для списков с ?withTotal=false
+    @JsonProperty("income_count")
+    private long incomeCount;
+
+    @JsonProperty("expense_count")
+    private long expenseCount;
 }
@@ -0,0 +1,41 @@
+package com.example.fintrackerpro.dto;
+
+import com.example.fintrackerpro.entity.category.CategoryType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RollupDriftReport {
+
+    private Long userId;
+    private int rowsBefore;
+    private int rowsAfter;
+    private List<Drift> drifts;
+
+    public boolean isConsistent() {
+        return drifts == null || drifts.isEmpty();
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Drift {
+        private LocalDate yearMonth;
+        private CategoryType type;
+        private String category;
+        private BigDecimal storedTotal;
+        private BigDecimal actualTotal;
+        private long storedCount;
+        private long actualCount;
+    }
+}
@@ -22,7 +22,7 @@ public class Expense {
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "user_id", nullable = false)
+    @JoinColumn(name = "user_id", nullable = false, foreignKey = @ForeignKey(name = "fk_expenses_user"))
     @Schema(description = "ID пользователя", example = "5")
     private User user; // расход определенного пользователя
 
@@ -34,6 +34,11 @@ public class Expense {
     @Schema(description = "Категория расхода", example = "Продукты")
     private String category;
 
+    // Ссылка на categories (V15); category выше - подпись на момент записи, при переименовании обновляется
+    @Column(name = "category_id")
+    @Schema(description = "ID категории", example = "12")
+    private Long categoryId;
+
     @Column(name = "description")
     @Schema(description = "Описание расхода", example = "Покупка продуктов")
     private String description; // описание расхода
@@ -25,7 +25,7 @@ public class Income {
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY) // много доходов принадлежит 1 пользователю
-    @JoinColumn(name = "user_id", nullable = false)
+    @JoinColumn(name = "user_id", nullable = false, foreignKey = @ForeignKey(name = "fk_incomes_user"))
     @Schema(description = "ID пользователя", example = "5")
     private User user;
 
@@ -37,6 +37,11 @@ public class Income {
     @Schema(description = "Описание дохода", example = "Зарплата за март")
     private String category;
 
+    // Ссылка на categories (V15); category выше - подпись на момент записи, при переименовании обновляется
+    @Column(name = "category_id")
+    @Schema(description = "ID категории", example = "3")
+    private Long categoryId;
+
     @Column(name = "source")
     @Schema(description = "Источник дохода", example = "Зарплата")
     private String source; // источник
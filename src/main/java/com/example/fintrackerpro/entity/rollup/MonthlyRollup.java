@@ -0,0 +1,34 @@
+package com.example.fintrackerpro.entity.rollup;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Предагрегированные суммы по (пользователь, месяц, тип, категория).
+ * Поддерживается дельтами из ExpenseService/IncomeService/DataService, см. MonthlyRollupService.
+ */
+@Entity
+@Table(name = "monthly_rollup")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MonthlyRollup {
+
+    @EmbeddedId
+    private MonthlyRollupId id;
+
+    @Column(name = "total", nullable = false, precision = 19, scale = 2)
+    private BigDecimal total;
+
+    @Column(name = "count", nullable = false)
+    private long count;
+}
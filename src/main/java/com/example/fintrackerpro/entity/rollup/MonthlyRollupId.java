@@ -0,0 +1,33 @@
+package com.example.fintrackerpro.entity.rollup;
+
+import com.example.fintrackerpro.entity.category.CategoryType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MonthlyRollupId implements Serializable {
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "year_month", nullable = false)
+    private LocalDate yearMonth; // первое число месяца
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, length = 20)
+    private CategoryType type;
+
+    @Column(name = "category", nullable = false, length = 50)
+    private String category;
+}
@@ -0,0 +1,17 @@
+package com.example.fintrackerpro.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Строка агрегации по категориям: тип (INCOME/EXPENSE), категория, сумма и количество.
+ */
+public interface CategoryTotalsRow {
+
+    String getType();
+
+    String getCategory();
+
+    BigDecimal getTotal();
+
+    Long getCount();
+}
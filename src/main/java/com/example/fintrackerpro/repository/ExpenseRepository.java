@@ -1,8 +1,10 @@
 package com.example.fintrackerpro.repository;
 
+import com.example.fintrackerpro.dto.ExpenseResponse;
 import com.example.fintrackerpro.entity.expense.Expense;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -11,6 +13,7 @@ import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,27 +26,51 @@ public interface ExpenseRepository extends JpaRepository<Expense, Long> {
 
     Optional<Expense> findById(Long id);
 
-    // Получить сумму расходов за месяц
+    // Получить сумму расходов за период [from, to)
     @Query("SELECT COALESCE(SUM(e.amount), 0) FROM Expense e " +
             "WHERE e.user.id = :userId " +
-            "AND YEAR(e.date) = :year " +
-            "AND MONTH(e.date) = :month")
-    BigDecimal getTotalExpenseByUserAndMonth(
+            "AND e.date >= :from " +
+            "AND e.date < :to")
+    BigDecimal getTotalExpenseByUserAndPeriod(
             @Param("userId") Long userId,
-            @Param("year") int year,
-            @Param("month") int month
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to
     );
 
-    // Получить расходы за период
-    @Query("SELECT e FROM Expense e " +
+    // Списки сразу в DTO: без managed-сущностей, прокси User и снимков для dirty checking
+    @Query(value = "SELECT new com.example.fintrackerpro.dto.ExpenseResponse(e.id, e.user.id, e.amount, e.category, e.description, e.date) " +
+            "FROM Expense e " +
+            "WHERE e.user.id = :userId",
+            countQuery = "SELECT COUNT(e) FROM Expense e WHERE e.user.id = :userId")
+    Page<ExpenseResponse> findResponsesByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(value = "SELECT new com.example.fintrackerpro.dto.ExpenseResponse(e.id, e.user.id, e.amount, e.category, e.description, e.date) " +
+            "FROM Expense e " +
+            "WHERE e.user.id = :userId " +
+            "AND e.date >= :from " +
+            "AND e.date < :to " +
+            "ORDER BY e.date DESC",
+            countQuery = "SELECT COUNT(e) FROM Expense e " +
+                    "WHERE e.user.id = :userId " +
+                    "AND e.date >= :from " +
+                    "AND e.date < :to")
+    Page<ExpenseResponse> findResponsesByUserIdAndPeriod(
+            @Param("userId") Long userId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            Pageable pageable
+    );
+
+    @Query("SELECT new com.example.fintrackerpro.dto.ExpenseResponse(e.id, e.user.id, e.amount, e.category, e.description, e.date) " +
+            "FROM Expense e " +
             "WHERE e.user.id = :userId " +
-            "AND YEAR(e.date) = :year " +
-            "AND MONTH(e.date) = :month " +
+            "AND e.date >= :from " +
+            "AND e.date < :to " +
             "ORDER BY e.date DESC")
-    Page<Expense> findByUserIdAndYearAndMonth(
+    Slice<ExpenseResponse> findResponseSliceByUserIdAndPeriod(
             @Param("userId") Long userId,
-            @Param("year") int year,
-            @Param("month") int month,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
             Pageable pageable
     );
 
@@ -57,18 +84,46 @@ public interface ExpenseRepository extends JpaRepository<Expense, Long> {
 """, nativeQuery = true)
     List<Object[]> findUsedMonthsByUser(@Param("userId") Long userId);
 
+    // Keyset-пагинация по (date DESC, id DESC): первая страница без курсора
+    @Query("SELECT e FROM Expense e " +
+            "WHERE e.user.id = :userId " +
+            "ORDER BY e.date DESC, e.id DESC")
+    List<Expense> findKeysetFirstPage(@Param("userId") Long userId, Pageable limit);
+
+    // Следующая страница после (date, id). date <= :date - граница для range scan по idx_expenses_user_date
+    @Query("SELECT e FROM Expense e " +
+            "WHERE e.user.id = :userId " +
+            "AND e.date <= :date " +
+            "AND (e.date < :date OR e.id < :id) " +
+            "ORDER BY e.date DESC, e.id DESC")
+    List<Expense> findKeysetPageAfter(
+            @Param("userId") Long userId,
+            @Param("date") LocalDateTime date,
+            @Param("id") Long id,
+            Pageable limit
+    );
+
     Optional<Expense> findByIdAndUserId(Long id, Long userId);
 
 
     // Добавь в существующий ExpenseRepository
     @Modifying
     @Transactional
-    @Query("DELETE FROM Expense e WHERE e.user.id = :userId AND YEAR(e.date) = :year AND MONTH(e.date) = :month")
-    void deleteByUserIdAndYearAndMonth(
+    @Query("DELETE FROM Expense e WHERE e.user.id = :userId AND e.date >= :from AND e.date < :to")
+    void deleteByUserIdAndPeriod(
             @Param("userId") Long userId,
-            @Param("year") int year,
-            @Param("month") int month
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to
     );
 
+    // Переименование/слияние категории: все транзакции пользователя одним UPDATE по idx_expenses_category_id
+    @Modifying
+    @Query("UPDATE Expense e SET e.categoryId = :targetId, e.category = :name " +
+            "WHERE e.user.id = :userId AND e.categoryId = :categoryId")
+    int remapCategory(
+            @Param("userId") Long userId,
+            @Param("categoryId") Long categoryId,
+            @Param("targetId") Long targetId,
+            @Param("name") String name
+    );
 }
-
@@ -1,8 +1,10 @@
 package com.example.fintrackerpro.repository;
 
+import com.example.fintrackerpro.dto.IncomeResponse;
 import com.example.fintrackerpro.entity.income.Income;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -11,40 +13,82 @@ import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface IncomeRepository extends JpaRepository<Income, Long> {
 
-    Optional<Income> findByIdAndUserId(Long id, Long userId);
+    // Keyset-пагинация по (date DESC, id DESC): первая страница без курсора
+    @Query("SELECT i FROM Income i " +
+            "WHERE i.user.id = :userId " +
+            "ORDER BY i.date DESC, i.id DESC")
+    List<Income> findKeysetFirstPage(@Param("userId") Long userId, Pageable limit);
 
-    Page<Income> findByUserIdOrderByCreatedAtDesc(Long userId, Pageable pageable);
+    // Следующая страница после (date, id). date <= :date - граница для range scan по idx_incomes_user_date
+    @Query("SELECT i FROM Income i " +
+            "WHERE i.user.id = :userId " +
+            "AND i.date <= :date " +
+            "AND (i.date < :date OR i.id < :id) " +
+            "ORDER BY i.date DESC, i.id DESC")
+    List<Income> findKeysetPageAfter(
+            @Param("userId") Long userId,
+            @Param("date") LocalDateTime date,
+            @Param("id") Long id,
+            Pageable limit
+    );
 
+    Optional<Income> findByIdAndUserId(Long id, Long userId);
 
     Optional<Income> findById(Long id);
 
-    // Получить сумму доходов за месяц
+    // Получить сумму доходов за период [from, to)
     @Query("SELECT COALESCE(SUM(i.amount), 0) FROM Income i " +
             "WHERE i.user.id = :userId " +
-            "AND YEAR(i.date) = :year " +
-            "AND MONTH(i.date) = :month")
-    BigDecimal getTotalIncomeByUserAndMonth(
+            "AND i.date >= :from " +
+            "AND i.date < :to")
+    BigDecimal getTotalIncomeByUserAndPeriod(
             @Param("userId") Long userId,
-            @Param("year") int year,
-            @Param("month") int month
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to
     );
 
-    // Получить доходы за период
-    @Query("SELECT i FROM Income i " +
+    // Списки сразу в DTO: без managed-сущностей, прокси User и снимков для dirty checking
+    @Query(value = "SELECT new com.example.fintrackerpro.dto.IncomeResponse(i.id, i.user.id, i.amount, i.category, i.source, i.date) " +
+            "FROM Income i " +
+            "WHERE i.user.id = :userId " +
+            "ORDER BY i.createdAt DESC",
+            countQuery = "SELECT COUNT(i) FROM Income i WHERE i.user.id = :userId")
+    Page<IncomeResponse> findResponsesByUserIdOrderByCreatedAtDesc(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(value = "SELECT new com.example.fintrackerpro.dto.IncomeResponse(i.id, i.user.id, i.amount, i.category, i.source, i.date) " +
+            "FROM Income i " +
+            "WHERE i.user.id = :userId " +
+            "AND i.date >= :from " +
+            "AND i.date < :to " +
+            "ORDER BY i.date DESC",
+            countQuery = "SELECT COUNT(i) FROM Income i " +
+                    "WHERE i.user.id = :userId " +
+                    "AND i.date >= :from " +
+                    "AND i.date < :to")
+    Page<IncomeResponse> findResponsesByUserIdAndPeriod(
+            @Param("userId") Long userId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            Pageable pageable
+    );
+
+    @Query("SELECT new com.example.fintrackerpro.dto.IncomeResponse(i.id, i.user.id, i.amount, i.category, i.source, i.date) " +
+            "FROM Income i " +
             "WHERE i.user.id = :userId " +
-            "AND YEAR(i.date) = :year " +
-            "AND MONTH(i.date) = :month " +
+            "AND i.date >= :from " +
+            "AND i.date < :to " +
             "ORDER BY i.date DESC")
-    Page<Income> findByUserIdAndYearAndMonth(
+    Slice<IncomeResponse> findResponseSliceByUserIdAndPeriod(
             @Param("userId") Long userId,
-            @Param("year") int year,
-            @Param("month") int month,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
             Pageable pageable
     );
 
@@ -61,12 +105,21 @@ public interface IncomeRepository extends JpaRepository<Income, Long> {
     // Добавь в существующий IncomeRepository
     @Modifying
     @Transactional
-    @Query("DELETE FROM Income i WHERE i.user.id = :userId AND YEAR(i.date) = :year AND MONTH(i.date) = :month")
-    void deleteByUserIdAndYearAndMonth(
+    @Query("DELETE FROM Income i WHERE i.user.id = :userId AND i.date >= :from AND i.date < :to")
+    void deleteByUserIdAndPeriod(
             @Param("userId") Long userId,
-            @Param("year") int year,
-            @Param("month") int month
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to
     );
 
-
+    // Переименование/слияние категории: все транзакции пользователя одним UPDATE по idx_incomes_category_id
+    @Modifying
+    @Query("UPDATE Income i SET i.categoryId = :targetId, i.category = :name " +
+            "WHERE i.user.id = :userId AND i.categoryId = :categoryId")
+    int remapCategory(
+            @Param("userId") Long userId,
+            @Param("categoryId") Long categoryId,
+            @Param("targetId") Long targetId,
+            @Param("name") String name
+    );
 }
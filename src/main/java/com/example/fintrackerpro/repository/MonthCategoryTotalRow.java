@@ -0,0 +1,17 @@
+package com.example.fintrackerpro.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Строка rollup для матрицы: месяц, категория и сумма за него.
+ */
+public interface MonthCategoryTotalRow {
+
+    Integer getYear();
+
+    Integer getMonth();
+
+    String getCategory();
+
+    BigDecimal getTotal();
+}
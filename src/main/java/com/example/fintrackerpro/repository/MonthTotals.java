@@ -0,0 +1,19 @@
+package com.example.fintrackerpro.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Итоги месяца одной строкой: существует ли пользователь, суммы и количество доходов/расходов.
+ */
+public interface MonthTotals {
+
+    Boolean getUserExists();
+
+    BigDecimal getTotalIncome();
+
+    BigDecimal getTotalExpenses();
+
+    Long getIncomeCount();
+
+    Long getExpenseCount();
+}
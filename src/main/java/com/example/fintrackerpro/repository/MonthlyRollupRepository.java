@@ -0,0 +1,121 @@
+package com.example.fintrackerpro.repository;
+
+import com.example.fintrackerpro.entity.rollup.MonthlyRollup;
+import com.example.fintrackerpro.entity.rollup.MonthlyRollupId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface MonthlyRollupRepository extends JpaRepository<MonthlyRollup, MonthlyRollupId> {
+
+    List<MonthlyRollup> findByIdUserId(Long userId);
+
+    @Query("SELECT DISTINCT r.id.yearMonth FROM MonthlyRollup r " +
+            "WHERE r.id.userId = :userId AND r.count > 0 " +
+            "ORDER BY r.id.yearMonth DESC")
+    List<LocalDate> findUsedMonthsByUser(@Param("userId") Long userId);
+
+    // Атомарно прибавить дельту к строке (создаёт строку, если её ещё нет)
+    @Modifying
+    @Query(value = """
+    INSERT INTO monthly_rollup (user_id, year_month, type, category, total, count)
+    VALUES (:userId, :yearMonth, :type, :category, :amount, :count)
+    ON CONFLICT (user_id, year_month, type, category)
+    DO UPDATE SET total = monthly_rollup.total + EXCLUDED.total,
+                  count = monthly_rollup.count + EXCLUDED.count
+""", nativeQuery = true)
+    void applyDelta(
+            @Param("userId") Long userId,
+            @Param("yearMonth") LocalDate yearMonth,
+            @Param("type") String type,
+            @Param("category") String category,
+            @Param("amount") BigDecimal amount,
+            @Param("count") long count
+    );
+
+    // Убрать строку, если в ней не осталось транзакций
+    @Modifying
+    @Query(value = """
+    DELETE FROM monthly_rollup
+    WHERE user_id = :userId AND year_month = :yearMonth AND type = :type AND category = :category
+      AND count <= 0
+""", nativeQuery = true)
+    void deleteIfEmpty(
+            @Param("userId") Long userId,
+            @Param("yearMonth") LocalDate yearMonth,
+            @Param("type") String type,
+            @Param("category") String category
+    );
+
+    @Modifying
+    @Query(value = "DELETE FROM monthly_rollup WHERE user_id = :userId AND year_month = :yearMonth AND type = :type",
+            nativeQuery = true)
+    void deleteMonth(
+            @Param("userId") Long userId,
+            @Param("yearMonth") LocalDate yearMonth,
+            @Param("type") String type
+    );
+
+    // Переименование/слияние категории: строки подписи from (без учёта регистра) прибавляются к строкам to.
+    // Не UPDATE: строка to за тот же месяц уже может быть (вариант регистра, подпись без категории)
+    @Modifying(clearAutomatically = true)
+    @Query(value = """
+    INSERT INTO monthly_rollup (user_id, year_month, type, category, total, count)
+    SELECT r.user_id, r.year_month, r.type, CAST(:to AS VARCHAR(50)), SUM(r.total), SUM(r.count)
+    FROM monthly_rollup r
+    WHERE r.user_id = :userId AND r.type = :type AND lower(r.category) = lower(:from) AND r.category <> :to
+    GROUP BY r.user_id, r.year_month, r.type
+    ON CONFLICT (user_id, year_month, type, category)
+    DO UPDATE SET total = monthly_rollup.total + EXCLUDED.total,
+                  count = monthly_rollup.count + EXCLUDED.count
+""", nativeQuery = true)
+    void mergeLabel(
+            @Param("userId") Long userId,
+            @Param("type") String type,
+            @Param("from") String from,
+            @Param("to") String to
+    );
+
+    @Modifying(clearAutomatically = true)
+    @Query(value = """
+    DELETE FROM monthly_rollup
+    WHERE user_id = :userId AND type = :type AND lower(category) = lower(:from) AND category <> :to
+""", nativeQuery = true)
+    void deleteLabel(
+            @Param("userId") Long userId,
+            @Param("type") String type,
+            @Param("from") String from,
+            @Param("to") String to
+    );
+
+    @Modifying(clearAutomatically = true)
+    @Query(value = "DELETE FROM monthly_rollup WHERE user_id = :userId", nativeQuery = true)
+    void deleteAllByUser(@Param("userId") Long userId);
+
+    // Пересчитать строки пользователя из incomes/expenses
+    @Modifying(clearAutomatically = true)
+    @Query(value = """
+    INSERT INTO monthly_rollup (user_id, year_month, type, category, total, count)
+    SELECT s.user_id, s.year_month, s.type, s.category, SUM(s.amount), COUNT(*)
+    FROM (
+        SELECT i.user_id, CAST(date_trunc('month', i.date) AS DATE) AS year_month,
+               'INCOME' AS type, COALESCE(i.category, '') AS category, i.amount
+        FROM incomes i
+        WHERE i.user_id = :userId
+        UNION ALL
+        SELECT e.user_id, CAST(date_trunc('month', e.date) AS DATE) AS year_month,
+               'EXPENSE' AS type, COALESCE(e.category, '') AS category, e.amount
+        FROM expenses e
+        WHERE e.user_id = :userId
+    ) s
+    GROUP BY s.user_id, s.year_month, s.type, s.category
+""", nativeQuery = true)
+    void insertFromSource(@Param("userId") Long userId);
+}
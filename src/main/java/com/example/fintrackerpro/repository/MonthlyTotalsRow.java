@@ -0,0 +1,21 @@
+package com.example.fintrackerpro.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Строка помесячной агрегации: месяц, суммы и количество доходов/расходов за него.
+ */
+public interface MonthlyTotalsRow {
+
+    Integer getYear();
+
+    Integer getMonth();
+
+    BigDecimal getTotalIncome();
+
+    BigDecimal getTotalExpenses();
+
+    Long getIncomeCount();
+
+    Long getExpenseCount();
+}
@@ -0,0 +1,139 @@
+package com.example.fintrackerpro.repository;
+
+import com.example.fintrackerpro.config.ReactiveReadConfig.ReactiveReadDatabase;
+import io.r2dbc.spi.Row;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+
+/**
+ * Чтение через R2DBC для /api/reactive. SQL - те же запросы, что в SummaryRepository,
+ * MonthlyRollupRepository и keyset-методах Expense/IncomeRepository.
+ */
+@Repository
+@ConditionalOnProperty(prefix = "app.reactive", name = "enabled", havingValue = "true")
+public class ReactiveReadRepository {
+
+    private static final String MONTH_TOTALS = """
+            SELECT
+                EXISTS (SELECT 1 FROM users WHERE id = :userId)   AS user_exists,
+                COALESCE(t.total_income, 0)                       AS total_income,
+                COALESCE(t.total_expenses, 0)                     AS total_expenses,
+                COALESCE(t.income_count, 0)                       AS income_count,
+                COALESCE(t.expense_count, 0)                      AS expense_count
+            FROM (
+                SELECT
+                    SUM(CASE WHEN r.type = 'INCOME' THEN r.total END)                   AS total_income,
+                    SUM(CASE WHEN r.type = 'EXPENSE' THEN r.total END)                  AS total_expenses,
+                    CAST(SUM(CASE WHEN r.type = 'INCOME' THEN r.count END) AS BIGINT)   AS income_count,
+                    CAST(SUM(CASE WHEN r.type = 'EXPENSE' THEN r.count END) AS BIGINT)  AS expense_count
+                FROM monthly_rollup r
+                WHERE r.user_id = :userId
+                  AND r.year_month >= :from AND r.year_month < :to
+            ) t
+            """;
+
+    private static final String USED_MONTHS = """
+            SELECT DISTINCT r.year_month
+            FROM monthly_rollup r
+            WHERE r.user_id = :userId AND r.count > 0
+            ORDER BY r.year_month DESC
+            """;
+
+    // Таблицы фиксированные, подставляются только "expenses"/"incomes" и "description"/"source"
+    private static final String KEYSET_FIRST = """
+            SELECT id, user_id, amount, category, %s AS text, date
+            FROM %s
+            WHERE user_id = :userId
+            ORDER BY date DESC, id DESC
+            LIMIT :limit
+            """;
+
+    private static final String KEYSET_AFTER = """
+            SELECT id, user_id, amount, category, %s AS text, date
+            FROM %s
+            WHERE user_id = :userId
+              AND date <= :date
+              AND (date < :date OR id < :id)
+            ORDER BY date DESC, id DESC
+            LIMIT :limit
+            """;
+
+    private final DatabaseClient client;
+
+    public ReactiveReadRepository(ReactiveReadDatabase database) {
+        this.client = database.client();
+    }
+
+    public Mono<MonthTotalsValue> getMonthTotals(Long userId, LocalDate from, LocalDate to) {
+        return client.sql(MONTH_TOTALS)
+                .bind("userId", userId)
+                .bind("from", from)
+                .bind("to", to)
+                .map((row, meta) -> new MonthTotalsValue(
+                        Boolean.TRUE.equals(row.get("user_exists", Boolean.class)),
+                        row.get("total_income", BigDecimal.class),
+                        row.get("total_expenses", BigDecimal.class),
+                        row.get("income_count", Long.class),
+                        row.get("expense_count", Long.class)))
+                .one();
+    }
+
+    public Flux<LocalDate> findUsedMonths(Long userId) {
+        return client.sql(USED_MONTHS)
+                .bind("userId", userId)
+                .map((row, meta) -> row.get("year_month", LocalDate.class))
+                .all();
+    }
+
+    public Flux<TransactionRow> findExpensesKeyset(Long userId, LocalDateTime afterDate, Long afterId, int limit) {
+        return keyset("expenses", "description", userId, afterDate, afterId, limit);
+    }
+
+    public Flux<TransactionRow> findIncomesKeyset(Long userId, LocalDateTime afterDate, Long afterId, int limit) {
+        return keyset("incomes", "source", userId, afterDate, afterId, limit);
+    }
+
+    private Flux<TransactionRow> keyset(String table, String textColumn, Long userId,
+                                        LocalDateTime afterDate, Long afterId, int limit) {
+        DatabaseClient.GenericExecuteSpec spec;
+        if (afterDate == null) {
+            spec = client.sql(KEYSET_FIRST.formatted(textColumn, table));
+        } else {
+            // date - TIMESTAMPTZ: переводим в зону JVM так же, как это делает JDBC-драйвер для LocalDateTime
+            spec = client.sql(KEYSET_AFTER.formatted(textColumn, table))
+                    .bind("date", afterDate.atZone(ZoneId.systemDefault()).toOffsetDateTime())
+                    .bind("id", afterId);
+        }
+        return spec.bind("userId", userId)
+                .bind("limit", limit)
+                .map((row, meta) -> toTransaction(row))
+                .all();
+    }
+
+    private static TransactionRow toTransaction(Row row) {
+        OffsetDateTime date = row.get("date", OffsetDateTime.class);
+        return new TransactionRow(
+                row.get("id", Long.class),
+                row.get("user_id", Long.class),
+                row.get("amount", BigDecimal.class),
+                row.get("category", String.class),
+                row.get("text", String.class),
+                date != null ? date.atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime() : null);
+    }
+
+    public record MonthTotalsValue(boolean userExists, BigDecimal totalIncome, BigDecimal totalExpenses,
+                                   Long incomeCount, Long expenseCount) {}
+
+    // text - description для расходов, source для доходов
+    public record TransactionRow(Long id, Long userId, BigDecimal amount, String category, String text,
+                                 LocalDateTime date) {}
+}
@@ -0,0 +1,132 @@
+package com.example.fintrackerpro.repository;
+
+import com.example.fintrackerpro.entity.user.User;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Агрегирующие запросы для сводок. Читают monthly_rollup, каждый метод - один round trip в БД.
+ */
+public interface SummaryRepository extends org.springframework.data.repository.Repository<User, Long> {
+
+    // Проверка пользователя, суммы и количество операций за период [from, to) одним запросом
+    @Query(value = """
+    SELECT
+        EXISTS (SELECT 1 FROM users WHERE id = :userId)   AS "userExists",
+        COALESCE(t.total_income, 0)                       AS "totalIncome",
+        COALESCE(t.total_expenses, 0)                     AS "totalExpenses",
+        COALESCE(t.income_count, 0)                       AS "incomeCount",
+        COALESCE(t.expense_count, 0)                      AS "expenseCount"
+    FROM (
+        SELECT
+            SUM(CASE WHEN r.type = 'INCOME' THEN r.total END)                   AS total_income,
+            SUM(CASE WHEN r.type = 'EXPENSE' THEN r.total END)                  AS total_expenses,
+            CAST(SUM(CASE WHEN r.type = 'INCOME' THEN r.count END) AS BIGINT)   AS income_count,
+            CAST(SUM(CASE WHEN r.type = 'EXPENSE' THEN r.count END) AS BIGINT)  AS expense_count
+        FROM monthly_rollup r
+        WHERE r.user_id = :userId
+          AND r.year_month >= :from AND r.year_month < :to
+    ) t
+""", nativeQuery = true)
+    MonthTotals getMonthTotals(
+            @Param("userId") Long userId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to
+    );
+
+    // Итоги по всем месяцам пользователя: одна строка rollup на (месяц, тип, категория)
+    @Query(value = """
+    SELECT
+        CAST(EXTRACT(YEAR FROM r.year_month) AS INTEGER)            AS "year",
+        CAST(EXTRACT(MONTH FROM r.year_month) AS INTEGER)           AS "month",
+        SUM(CASE WHEN r.type = 'INCOME' THEN r.total ELSE 0 END)    AS "totalIncome",
+        SUM(CASE WHEN r.type = 'EXPENSE' THEN r.total ELSE 0 END)   AS "totalExpenses",
+        CAST(SUM(CASE WHEN r.type = 'INCOME' THEN r.count ELSE 0 END) AS BIGINT)  AS "incomeCount",
+        CAST(SUM(CASE WHEN r.type = 'EXPENSE' THEN r.count ELSE 0 END) AS BIGINT) AS "expenseCount"
+    FROM monthly_rollup r
+    WHERE r.user_id = :userId
+    GROUP BY r.year_month
+    ORDER BY r.year_month DESC
+""", nativeQuery = true)
+    List<MonthlyTotalsRow> findMonthlyTotalsByUser(@Param("userId") Long userId);
+
+    // Суммы по категориям за целые месяцы [from, to) - из monthly_rollup
+    @Query(value = """
+    SELECT
+        r.type                          AS "type",
+        r.category                      AS "category",
+        SUM(r.total)                    AS "total",
+        CAST(SUM(r.count) AS BIGINT)    AS "count"
+    FROM monthly_rollup r
+    WHERE r.user_id = :userId
+      AND r.year_month >= :from AND r.year_month < :to
+    GROUP BY r.type, r.category
+    HAVING SUM(r.count) > 0
+    ORDER BY SUM(r.total) DESC
+""", nativeQuery = true)
+    List<CategoryTotalsRow> findCategoryTotalsByMonths(
+            @Param("userId") Long userId,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to
+    );
+
+    // Суммы по категориям за произвольный период [from, to): GROUP BY category_id index-only scan'ом
+    // по idx_*_user_date_category_id, название - из categories. Строки без category_id (категорию удалили)
+    // группируются по своей текстовой подписи, heap читается только для них.
+    @Query(value = """
+    SELECT t.tx_type AS "type", COALESCE(c.name, t.label) AS "category", t.total_amount AS "total", t.cnt AS "count"
+    FROM (
+        SELECT 'EXPENSE' AS tx_type, e.category_id, CAST(NULL AS VARCHAR(50)) AS label,
+               SUM(e.amount) AS total_amount, COUNT(*) AS cnt
+        FROM expenses e
+        WHERE e.user_id = :userId AND e.date >= :from AND e.date < :to AND e.category_id IS NOT NULL
+        GROUP BY e.category_id
+        UNION ALL
+        SELECT 'EXPENSE', NULL, e.category, SUM(e.amount), COUNT(*)
+        FROM expenses e
+        WHERE e.user_id = :userId AND e.date >= :from AND e.date < :to AND e.category_id IS NULL
+        GROUP BY e.category
+        UNION ALL
+        SELECT 'INCOME', i.category_id, CAST(NULL AS VARCHAR(50)), SUM(i.amount), COUNT(*)
+        FROM incomes i
+        WHERE i.user_id = :userId AND i.date >= :from AND i.date < :to AND i.category_id IS NOT NULL
+        GROUP BY i.category_id
+        UNION ALL
+        SELECT 'INCOME', NULL, i.category, SUM(i.amount), COUNT(*)
+        FROM incomes i
+        WHERE i.user_id = :userId AND i.date >= :from AND i.date < :to AND i.category_id IS NULL
+        GROUP BY i.category
+    ) t
+    LEFT JOIN categories c ON c.id = t.category_id
+    ORDER BY 3 DESC
+""", nativeQuery = true)
+    List<CategoryTotalsRow> findCategoryTotalsByPeriod(
+            @Param("userId") Long userId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to
+    );
+
+    // Ячейки матрицы категория x месяц за [from, to) одного типа - одним проходом по PK monthly_rollup
+    @Query(value = """
+    SELECT
+        CAST(EXTRACT(YEAR FROM r.year_month) AS INTEGER)    AS "year",
+        CAST(EXTRACT(MONTH FROM r.year_month) AS INTEGER)   AS "month",
+        r.category                                          AS "category",
+        r.total                                             AS "total"
+    FROM monthly_rollup r
+    WHERE r.user_id = :userId
+      AND r.type = :type
+      AND r.year_month >= :from AND r.year_month < :to
+      AND r.count > 0
+""", nativeQuery = true)
+    List<MonthCategoryTotalRow> findMonthCategoryTotals(
+            @Param("userId") Long userId,
+            @Param("type") String type,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to
+    );
+}
@@ -1,5 +1,6 @@
 package com.example.fintrackerpro.repository;
 
+import com.example.fintrackerpro.service.StatusSnapshotService;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tags;
 import org.springframework.stereotype.Component;
@@ -7,11 +8,12 @@ import org.springframework.stereotype.Component;
 @Component
 public class UserMetrics {
 
-  public UserMetrics(MeterRegistry registry, UserRepository userRepository) {
+  // Значение из фонового снимка: scrape не делает COUNT(*) по users
+  public UserMetrics(MeterRegistry registry, StatusSnapshotService statusSnapshot) {
     registry.gauge("fintracker_users_total",
             Tags.of("service", "fintracker-api", "env", "prod"),
-            userRepository,
-            repo -> repo.count());
+            statusSnapshot,
+            StatusSnapshotService::usersTotal);
 
   }
 }
@@ -1,5 +1,6 @@
 package com.example.fintrackerpro.security;
 
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -30,4 +31,15 @@ public final class CurrentUser {
 
         throw new IllegalStateException("Unauthenticated");
     }
+
+    /** Для кода вне контроллеров: null, если запрос не аутентифицирован (в т.ч. anonymousUser). */
+    public static Long idOrNull() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || auth instanceof AnonymousAuthenticationToken) return null;
+        try {
+            return id(auth);
+        } catch (IllegalStateException | NumberFormatException e) {
+            return null;
+        }
+    }
 }
@@ -45,9 +45,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         if (token != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             try {
-                Long userId = jwtUtil.extractUserId(token);
-                if (userId != null && !jwtUtil.isExpired(token)) {
-                    var auth = new UsernamePasswordAuthenticationToken(userId, null, List.of());
+                // Одна проверка подписи на запрос, повторные запросы с тем же токеном - из кэша
+                JwtUtil.VerifiedToken verified = jwtUtil.verify(token);
+                if (verified.userId() != null && !verified.isExpired()) {
+                    var auth = new UsernamePasswordAuthenticationToken(verified.userId(), null, List.of());
                     auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(auth);
                 }
@@ -1,14 +1,26 @@
 package com.example.fintrackerpro.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
 import java.util.Map;
 import java.util.UUID;
@@ -31,6 +43,33 @@ public class JwtUtil {
     @Value("${jwt.audience:fintracker-frontend}")
     private String audience;
 
+    @Value("${jwt.cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    @Value("${jwt.cache.max-ttl-seconds:900}")
+    private long cacheMaxTtlSeconds;
+
+    // Ключ и парсер неизменяемы и потокобезопасны - собираем один раз
+    private SecretKey signingKey;
+    private JwtParser parser;
+    private Cache<String, VerifiedToken> verifiedTokens;
+
+    @PostConstruct
+    void init() {
+        if (secretBase64 != null && !secretBase64.isBlank()) {
+            signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretBase64)); // HS256 min 256-bit key [web:5581]
+            parser = Jwts.parser()
+                    .verifyWith(signingKey)
+                    .requireIssuer(issuer)
+                    .requireAudience(audience)
+                    .build();
+        }
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new UntilTokenExpiry(Duration.ofSeconds(cacheMaxTtlSeconds)))
+                .build();
+    }
+
     public String generateAccessToken(Long userId) {
         return buildToken(userId, "access", accessExpirationMs);
     }
@@ -54,42 +93,112 @@ public class JwtUtil {
     }
 
     public Long extractUserId(String token) {
-        return Long.parseLong(parse(token).getSubject());
+        return verify(token).userId();
     }
 
     public String extractType(String token) {
-        Object v = parse(token).get("typ");
-        return v == null ? null : v.toString();
+        return verify(token).type();
     }
 
-    public Claims parse(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .requireIssuer(issuer)
-                .requireAudience(audience)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    /**
+     * Проверяет подпись, issuer/audience и срок действия. Уже проверенные токены
+     * берутся из кэша по SHA-256 токена до истечения их exp.
+     *
+     * @throws JwtException если токен невалиден или истёк
+     */
+    public VerifiedToken verify(String token) {
+        String key = digest(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(key);
+        if (cached != null && !cached.isExpired()) {
+            return cached;
+        }
+        VerifiedToken verified = verifyUncached(token);
+        verifiedTokens.put(key, verified);
+        return verified;
     }
 
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretBase64);
-        return Keys.hmacShaKeyFor(keyBytes); // HS256 min 256-bit key [web:5581]
+    VerifiedToken verifyUncached(String token) {
+        Claims claims = parse(token);
+        Date exp = claims.getExpiration();
+        if (exp == null) {
+            throw new JwtException("JWT без exp");
+        }
+        Object type = claims.get("typ");
+        return new VerifiedToken(
+                Long.parseLong(claims.getSubject()),
+                type == null ? null : type.toString(),
+                exp.toInstant());
     }
-    public boolean isExpired(String token) {
-        Date exp = extractExpiration(token);
-        return exp == null || exp.before(new Date());
+
+    public Claims parse(String token) {
+        return requireParser().parseSignedClaims(token).getPayload();
     }
 
+    public boolean isExpired(String token) {
+        try {
+            return verify(token).isExpired();
+        } catch (ExpiredJwtException e) {
+            return true;
+        }
+    }
 
     public Date extractExpiration(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())   // SecretKey (HMAC) или PublicKey (RSA/ECDSA)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return Date.from(verify(token).expiresAt());
+    }
 
-        return claims.getExpiration();
+    private SecretKey getSigningKey() {
+        if (signingKey == null) {
+            throw new IllegalStateException("jwt.secret-base64 не задан");
+        }
+        return signingKey;
     }
 
+    private JwtParser requireParser() {
+        if (parser == null) {
+            throw new IllegalStateException("jwt.secret-base64 не задан");
+        }
+        return parser;
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Результат проверки токена: всё, что нужно фильтру, без повторного парсинга. */
+    public record VerifiedToken(Long userId, String type, Instant expiresAt) {
+        public boolean isExpired() {
+            return !expiresAt.isAfter(Instant.now());
+        }
+    }
+
+    /** Запись живёт до exp токена, но не дольше TTL кэша. */
+    private static final class UntilTokenExpiry implements Expiry<String, VerifiedToken> {
+
+        private final long maxTtlNanos;
+
+        private UntilTokenExpiry(Duration maxTtl) {
+            this.maxTtlNanos = maxTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            long untilExp = Duration.between(Instant.now(), value.expiresAt()).toNanos();
+            return Math.max(0, Math.min(untilExp, maxTtlNanos));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
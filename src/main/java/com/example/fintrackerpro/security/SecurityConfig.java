@@ -1,5 +1,6 @@
 package com.example.fintrackerpro.security;
 
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.boot.autoconfigure.security.servlet.PathRequest;
 import org.springframework.context.annotation.Bean;
@@ -35,7 +36,7 @@ public class SecurityConfig {
         cfg.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"));
         cfg.setAllowedHeaders(List.of("*"));
         cfg.setAllowCredentials(true); // РАЗРЕШАЕМ КУКИ
-        cfg.setExposedHeaders(List.of("Set-Cookie"));
+        cfg.setExposedHeaders(List.of("Set-Cookie", "Server-Timing"));
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", cfg);
@@ -58,6 +59,9 @@ public class SecurityConfig {
                 )
                 .sessionManagement(s -> s.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // Async-диспатч (Mono/Flux, StreamingResponseBody) продолжает уже авторизованный запрос
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                         // Публичные страницы и статика
                         .requestMatchers(GET, "/", "/index", "/index.html", "/favicon.ico").permitAll()
                         .requestMatchers("/status").permitAll() // если хочешь JSON статус без авторизации
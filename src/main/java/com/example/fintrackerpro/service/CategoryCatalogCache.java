@@ -0,0 +1,70 @@
+package com.example.fintrackerpro.service;
+
+import com.example.fintrackerpro.dto.CategoryResponse;
+import com.example.fintrackerpro.entity.category.CategoryType;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Каталог категорий пользователя по типу - уже отсортированный список для пикера.
+ * Инвалидация - после коммита транзакции, которая добавила/удалила категорию. Сброс локальный,
+ * поэтому TTL короткий: изменения с другого инстанса видны не позже чем через ttl-seconds,
+ * а запись со ссылкой на уже удалённую категорию повторяется (CategoryService.withCategoryRetry).
+ */
+@Component
+public class CategoryCatalogCache {
+
+    private static final Tags TAGS = Tags.of("service", "fintracker-api", "env", "prod");
+
+    private final Cache<CatalogKey, List<CategoryResponse>> catalogs;
+
+    public CategoryCatalogCache(MeterRegistry registry,
+                                @Value("${app.cache.categories.max-size:10000}") long maxSize,
+                                @Value("${app.cache.categories.ttl-seconds:60}") long ttlSeconds) {
+        this.catalogs = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, catalogs, "categories.catalog", TAGS);
+    }
+
+    public List<CategoryResponse> catalog(Long userId, CategoryType type, Supplier<List<CategoryResponse>> loader) {
+        return catalogs.get(new CatalogKey(userId, type), k -> List.copyOf(loader.get()));
+    }
+
+    public void evict(Long userId, CategoryType type) {
+        afterCommit(() -> catalogs.invalidate(new CatalogKey(userId, type)));
+    }
+
+    /** Сброс сразу, без ожидания коммита: каталог уже разошёлся с базой. */
+    public void invalidate(Long userId, CategoryType type) {
+        catalogs.invalidate(new CatalogKey(userId, type));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private record CatalogKey(Long userId, CategoryType type) {}
+}
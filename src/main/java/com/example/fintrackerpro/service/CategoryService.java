@@ -1,5 +1,7 @@
 package com.example.fintrackerpro.service;
 
+import com.example.fintrackerpro.dto.CategoryRemapResponse;
+import com.example.fintrackerpro.dto.CategoryRenameRequest;
 import com.example.fintrackerpro.dto.CategoryRequest;
 import com.example.fintrackerpro.dto.CategoryResponse;
 import com.example.fintrackerpro.entity.category.Category;
@@ -7,24 +9,36 @@ import com.example.fintrackerpro.entity.category.CategoryType;
 import com.example.fintrackerpro.entity.user.User;
 import com.example.fintrackerpro.exception.ResourceNotFoundException;
 import com.example.fintrackerpro.repository.CategoryRepository;
+import com.example.fintrackerpro.repository.ExpenseRepository;
+import com.example.fintrackerpro.repository.IncomeRepository;
 import com.example.fintrackerpro.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class CategoryService {
 
     private static final List<String> DEFAULT_INCOME = List.of(
@@ -61,14 +75,78 @@ public class CategoryService {
 
     private final CategoryRepository categoryRepository;
     private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final CategoryCatalogCache catalogCache;
+    private final PlatformTransactionManager transactionManager;
+    private final ExpenseRepository expenseRepository;
+    private final IncomeRepository incomeRepository;
+    private final MonthlyRollupService rollupService;
 
-    @Transactional(readOnly = true)
+    /**
+     * Почти всегда отдаётся из памяти без транзакции и соединения из пула. На промахе - один SELECT,
+     * а если категорий этого типа ещё нет, то засев дефолтных, поэтому транзакция не read-only.
+     * Загрузка идёт в своей транзакции: присоединившись к транзакции вызывающего, засеянные
+     * категории попали бы в кэш до коммита и остались бы там после отката.
+     */
     public List<CategoryResponse> getCategories(Long userId, CategoryType type) {
-        ensureDefaults(userId, type);
+        return catalogCache.catalog(userId, type,
+                () -> newTransaction().execute(status -> loadCatalog(userId, type)));
+    }
+
+    /**
+     * Запись транзакции с category_id из каталога в памяти, в новой транзакции. id по названию
+     * берётся до открытия транзакции записи: промах каталога открывает свою транзакцию, и внутри
+     * записи это держало бы два соединения из пула сразу. Если категорию уже удалили (например,
+     * на другом инстансе), INSERT/UPDATE падает на fk_*_category: каталог сбрасывается, id
+     * берётся заново (актуальный или null), и запись повторяется в новой транзакции.
+     */
+    public <T> T withCategoryRetry(Long userId, CategoryType type, String categoryName, Function<Long, T> write) {
+        Long categoryId = findCategoryId(userId, type, categoryName);
+        try {
+            return newTransaction().execute(status -> write.apply(categoryId));
+        } catch (DataIntegrityViolationException e) {
+            if (!ForeignKeyViolations.violates(e, ForeignKeyViolations.CATEGORY_CONSTRAINTS)) {
+                throw e;
+            }
+            log.warn("⚠️ Stale category catalog: userId={}, type={}, retrying write", userId, type);
+            catalogCache.invalidate(userId, type);
+            Long freshId = findCategoryId(userId, type, categoryName);
+            return newTransaction().execute(status -> write.apply(freshId));
+        }
+    }
+
+    private TransactionTemplate newTransaction() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return template;
+    }
+
+    private List<CategoryResponse> loadCatalog(Long userId, CategoryType type) {
         List<Category> categories = categoryRepository.findByUserIdAndTypeOrderByNameAsc(userId, type);
+        if (categories.isEmpty()) {
+            insertDefaults(userId, List.of(type));
+            categories = categoryRepository.findByUserIdAndTypeOrderByNameAsc(userId, type);
+        }
         return sortInDefaultOrder(categories, type);
     }
 
+    /** id категории по названию без учёта регистра - из каталога в памяти. null, если такой категории нет. */
+    public Long findCategoryId(Long userId, CategoryType type, String name) {
+        if (name == null) {
+            return null;
+        }
+        return categoryIdsByName(userId, type).get(name.toLowerCase(Locale.ROOT));
+    }
+
+    /** Название в нижнем регистре -> id, для пакетных операций (импорт). */
+    public Map<String, Long> categoryIdsByName(Long userId, CategoryType type) {
+        Map<String, Long> ids = new HashMap<>();
+        for (CategoryResponse category : getCategories(userId, type)) {
+            ids.putIfAbsent(category.getName().toLowerCase(Locale.ROOT), category.getId());
+        }
+        return ids;
+    }
+
     @Transactional
     public CategoryResponse createCategory(Long userId, CategoryRequest request) {
         String name = normalizeName(request.getName());
@@ -90,7 +168,9 @@ public class CategoryService {
                 .system(false)
                 .build();
 
-        return CategoryResponse.from(categoryRepository.save(category));
+        Category saved = categoryRepository.save(category);
+        catalogCache.evict(userId, saved.getType());
+        return CategoryResponse.from(saved);
     }
 
     @Transactional
@@ -98,32 +178,111 @@ public class CategoryService {
         Category category = categoryRepository.findByIdAndUserId(categoryId, userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Категория не найдена"));
         categoryRepository.delete(category);
+        catalogCache.evict(userId, category.getType());
     }
 
+    /** Переименование категории и подписи всех её транзакций. */
     @Transactional
-    public void seedDefaultsForUser(Long userId) {
-        ensureDefaults(userId, CategoryType.INCOME);
-        ensureDefaults(userId, CategoryType.EXPENSE);
+    public CategoryRemapResponse renameCategory(Long userId, Long categoryId, CategoryRenameRequest request) {
+        String name = normalizeName(request.getName());
+        if (name.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Название категории обязательно");
+        }
+
+        Category category = categoryRepository.findByIdAndUserId(categoryId, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Категория не найдена"));
+        categoryRepository.findByUserIdAndTypeAndNameIgnoreCase(userId, category.getType(), name)
+                .filter(other -> !other.getId().equals(categoryId))
+                .ifPresent(other -> {
+                    throw new ResponseStatusException(HttpStatus.CONFLICT,
+                            "Категория с таким названием уже есть, объедините категории");
+                });
+
+        String oldName = category.getName();
+        category.setName(name);
+        categoryRepository.saveAndFlush(category);
+        int updated = remapTransactions(userId, category.getType(), categoryId, oldName, categoryId, name);
+        log.info("✏️ Category renamed: id={}, userId={}, transactions={}", categoryId, userId, updated);
+        return CategoryRemapResponse.builder()
+                .category(CategoryResponse.from(category))
+                .transactionsUpdated(updated)
+                .build();
     }
 
+    /** Перенос всех транзакций категории в другую категорию того же типа и удаление исходной. */
     @Transactional
-    public void ensureDefaults(Long userId, CategoryType type) {
-        if (categoryRepository.existsByUserIdAndType(userId, type)) {
-            return;
+    public CategoryRemapResponse mergeCategory(Long userId, Long sourceId, Long targetId) {
+        if (sourceId.equals(targetId)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Нельзя объединить категорию саму с собой");
+        }
+        Category source = categoryRepository.findByIdAndUserId(sourceId, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Категория не найдена"));
+        Category target = categoryRepository.findByIdAndUserId(targetId, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Категория не найдена"));
+        if (source.getType() != target.getType()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Нельзя объединить категории доходов и расходов");
         }
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
-        List<String> defaults = type == CategoryType.INCOME ? DEFAULT_INCOME : DEFAULT_EXPENSE;
-
-        for (String name : defaults) {
-            categoryRepository.save(Category.builder()
-                    .user(user)
-                    .name(name)
-                    .type(type)
-                    .system(true)
-                    .build());
+        int updated = remapTransactions(userId, source.getType(), sourceId, source.getName(), targetId, target.getName());
+        categoryRepository.delete(source);
+        categoryRepository.flush();
+        log.info("🔀 Category merged: {} -> {}, userId={}, transactions={}", sourceId, targetId, userId, updated);
+        return CategoryRemapResponse.builder()
+                .category(CategoryResponse.from(target))
+                .transactionsUpdated(updated)
+                .build();
+    }
+
+    /**
+     * Один UPDATE по category_id вместо построчной правки транзакций. monthly_rollup ключуется подписью,
+     * поэтому его строки переносятся со старой подписи на новую (MonthlyRollupService.relabel).
+     */
+    private int remapTransactions(Long userId, CategoryType type, Long categoryId, String oldName,
+                                  Long targetId, String name) {
+        int updated = type == CategoryType.INCOME
+                ? incomeRepository.remapCategory(userId, categoryId, targetId, name)
+                : expenseRepository.remapCategory(userId, categoryId, targetId, name);
+        if (updated > 0) {
+            rollupService.relabel(userId, type, oldName, name);
         }
+        catalogCache.evict(userId, type);
+        return updated;
+    }
+
+    @Transactional
+    public void seedDefaultsForUser(Long userId) {
+        insertDefaults(userId, List.of(CategoryType.INCOME, CategoryType.EXPENSE));
+    }
+
+    /**
+     * Дефолтные категории одним многострочным INSERT. ON CONFLICT - на случай,
+     * если два первых запроса пользователя засевают одновременно (uq_categories_user_type_name).
+     */
+    private void insertDefaults(Long userId, List<CategoryType> types) {
+        StringBuilder sql = new StringBuilder(
+                "INSERT INTO categories (user_id, name, type, is_system, created_at) VALUES ");
+        List<Object> args = new ArrayList<>();
+        LocalDateTime createdAt = LocalDateTime.now();
+        for (CategoryType type : types) {
+            for (String name : defaultsFor(type)) {
+                sql.append(args.isEmpty() ? "" : ", ").append("(?, ?, ?, TRUE, ?)");
+                args.add(userId);
+                args.add(name);
+                args.add(type.name());
+                args.add(createdAt);
+            }
+        }
+        sql.append(" ON CONFLICT DO NOTHING");
+        try {
+            jdbcTemplate.update(sql.toString(), args.toArray());
+        } catch (DataIntegrityViolationException e) {
+            // Дубликаты гасит ON CONFLICT, остаётся FK на users
+            throw new ResourceNotFoundException("User not found with id: " + userId);
+        }
+    }
+
+    private static List<String> defaultsFor(CategoryType type) {
+        return type == CategoryType.INCOME ? DEFAULT_INCOME : DEFAULT_EXPENSE;
     }
 
     private String normalizeName(String raw) {
@@ -133,8 +292,8 @@ public class CategoryService {
         return raw.trim().replaceAll("\\s+", " ");
     }
 
-    private List<CategoryResponse> sortInDefaultOrder(List<Category> categories, CategoryType type) {
-        List<String> defaultOrder = type == CategoryType.INCOME ? DEFAULT_INCOME : DEFAULT_EXPENSE;
+    static List<CategoryResponse> sortInDefaultOrder(List<Category> categories, CategoryType type) {
+        List<String> defaultOrder = defaultsFor(type);
         Map<String, Category> byLowerName = categories.stream()
                 .collect(Collectors.toMap(
                         c -> c.getName().toLowerCase(Locale.ROOT),
@@ -162,7 +321,7 @@ public class CategoryService {
         return result;
     }
 
-    private Category findCategoryForDefault(Map<String, Category> byLowerName, String name, CategoryType type) {
+    private static Category findCategoryForDefault(Map<String, Category> byLowerName, String name, CategoryType type) {
         Category category = byLowerName.get(name.toLowerCase(Locale.ROOT));
         if (category != null) {
             return category;
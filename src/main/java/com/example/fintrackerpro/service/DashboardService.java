@@ -0,0 +1,175 @@
+package com.example.fintrackerpro.service;
+
+import com.example.fintrackerpro.dto.CategoryResponse;
+import com.example.fintrackerpro.dto.CursorPage;
+import com.example.fintrackerpro.dto.DashboardDto;
+import com.example.fintrackerpro.dto.ExpenseResponse;
+import com.example.fintrackerpro.dto.IncomeResponse;
+import com.example.fintrackerpro.dto.MonthlySummaryDto;
+import com.example.fintrackerpro.entity.category.CategoryType;
+import com.example.fintrackerpro.entity.user.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Данные дашборда одним запросом: пользователь проверяется один раз,
+ * секции выполняются параллельно на ограниченном dashboardExecutor.
+ */
+@Service
+@Slf4j
+public class DashboardService {
+
+    static final int FIRST_PAGE_SIZE = 10;
+
+    // Порядок секций в Server-Timing
+    static final List<String> SECTIONS = List.of(
+            "summary", "months", "income-categories", "expense-categories", "incomes", "expenses");
+
+    private final UserService userService;
+    private final SummaryService summaryService;
+    private final CategoryService categoryService;
+    private final UserSettingsService userSettingsService;
+    private final IncomeService incomeService;
+    private final ExpenseService expenseService;
+    private final Executor executor;
+    private final long timeoutMs;
+
+    public DashboardService(UserService userService,
+                            SummaryService summaryService,
+                            CategoryService categoryService,
+                            UserSettingsService userSettingsService,
+                            IncomeService incomeService,
+                            ExpenseService expenseService,
+                            @Qualifier("dashboardExecutor") Executor executor,
+                            @Value("${app.dashboard.timeout-ms:10000}") long timeoutMs) {
+        this.userService = userService;
+        this.summaryService = summaryService;
+        this.categoryService = categoryService;
+        this.userSettingsService = userSettingsService;
+        this.incomeService = incomeService;
+        this.expenseService = expenseService;
+        this.executor = executor;
+        this.timeoutMs = timeoutMs;
+    }
+
+    /** Данные и длительность секций в мс: user, секции в порядке SECTIONS, total. */
+    public record Dashboard(DashboardDto payload, Map<String, Double> timingsMs) {}
+
+    public Dashboard getDashboard(Long userId, int year, int month) {
+        MonthRange.of(year, month);
+        long start = System.nanoTime();
+
+        // Единственная проверка пользователя, настройки берутся из этой же сущности
+        User user = userService.getUserEntityById(userId);
+        double userMs = millisSince(start);
+
+        Map<String, Double> sectionMs = new ConcurrentHashMap<>();
+        List<Future<?>> tasks = new ArrayList<>(SECTIONS.size());
+        CompletableFuture<MonthlySummaryDto> summary = section("summary", sectionMs, tasks,
+                () -> summaryService.getMonthlySummary(userId, year, month));
+        CompletableFuture<List<String>> months = section("months", sectionMs, tasks,
+                () -> summaryService.getUsedMonths(userId));
+        CompletableFuture<List<CategoryResponse>> incomeCategories = section("income-categories", sectionMs, tasks,
+                () -> categoryService.getCategories(userId, CategoryType.INCOME));
+        CompletableFuture<List<CategoryResponse>> expenseCategories = section("expense-categories", sectionMs, tasks,
+                () -> categoryService.getCategories(userId, CategoryType.EXPENSE));
+        CompletableFuture<CursorPage<IncomeResponse>> incomes = section("incomes", sectionMs, tasks,
+                () -> incomeService.getIncomesByExistingUserCursor(userId, null, FIRST_PAGE_SIZE));
+        CompletableFuture<CursorPage<ExpenseResponse>> expenses = section("expenses", sectionMs, tasks,
+                () -> expenseService.getExpensesByExistingUserCursor(userId, null, FIRST_PAGE_SIZE));
+
+        await(userId, tasks, CompletableFuture.allOf(summary, months, incomeCategories, expenseCategories, incomes, expenses));
+
+        DashboardDto payload = DashboardDto.builder()
+                .summary(summary.join())
+                .usedMonths(months.join())
+                .incomeCategories(incomeCategories.join())
+                .expenseCategories(expenseCategories.join())
+                .settings(userSettingsService.toSettings(user))
+                .incomes(incomes.join())
+                .expenses(expenses.join())
+                .build();
+
+        Map<String, Double> timings = new LinkedHashMap<>();
+        timings.put("user", userMs);
+        for (String name : SECTIONS) {
+            timings.put(name, sectionMs.getOrDefault(name, 0.0));
+        }
+        timings.put("total", millisSince(start));
+
+        log.info("🧭 Dashboard userId={} {}/{} in {} ms", userId, year, month, Math.round(timings.get("total")));
+        return new Dashboard(payload, timings);
+    }
+
+    /**
+     * Секция - FutureTask на executor: в отличие от CompletableFuture.supplyAsync её можно отменить,
+     * и тогда задача из очереди не стартует, а выполняющаяся получает interrupt.
+     */
+    private <T> CompletableFuture<T> section(String name, Map<String, Double> sectionMs, List<Future<?>> tasks,
+                                             Supplier<T> loader) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        FutureTask<Void> task = new FutureTask<>(() -> {
+            long start = System.nanoTime();
+            try {
+                result.complete(loader.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            } finally {
+                sectionMs.put(name, millisSince(start));
+            }
+        }, null);
+        tasks.add(task);
+        executor.execute(task);
+        return result;
+    }
+
+    private void await(Long userId, List<Future<?>> tasks, CompletableFuture<Void> all) {
+        try {
+            all.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            cancel(tasks);
+            log.warn("⏳ Dashboard timed out: userId={}, timeout={}ms", userId, timeoutMs);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Дашборд не успел загрузиться");
+        } catch (InterruptedException e) {
+            cancel(tasks);
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Дашборд не успел загрузиться");
+        } catch (ExecutionException e) {
+            // Ответ уже ошибка - остальные секции не должны держать пул и соединения
+            cancel(tasks);
+            // Ошибка секции (404, 400, БД) отдаётся так же, как при прямом вызове
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static void cancel(List<Future<?>> tasks) {
+        for (Future<?> task : tasks) {
+            task.cancel(true);
+        }
+    }
+
+    private static double millisSince(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000.0;
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.fintrackerpro.service;
 
+import com.example.fintrackerpro.dto.RollupDriftReport;
+import com.example.fintrackerpro.entity.category.CategoryType;
 import com.example.fintrackerpro.repository.ExpenseRepository;
 import com.example.fintrackerpro.repository.IncomeRepository;
 import lombok.RequiredArgsConstructor;
@@ -7,6 +9,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.YearMonth;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -14,24 +18,41 @@ public class DataService {
 
     private final IncomeRepository incomeRepository;
     private final ExpenseRepository expenseRepository;
+    private final MonthlyRollupService rollupService;
 
+    // Границы [начало месяца, начало следующего) совпадают с границами партиции (V14):
+    // DELETE отсекается до одной месячной партиции и идёт по idx_*_user_date внутри неё
     @Transactional
     public void deleteMonthData(Long userId, int year, int month, String type) {
+        MonthRange range = MonthRange.of(year, month);
+        YearMonth yearMonth = YearMonth.from(range.start());
         switch (type.toLowerCase()) {
             case "income" -> {
-                incomeRepository.deleteByUserIdAndYearAndMonth(userId, year, month);
+                incomeRepository.deleteByUserIdAndPeriod(userId, range.start(), range.end());
+                rollupService.monthCleared(userId, yearMonth, CategoryType.INCOME);
                 log.info("🗑 Deleted income userId={} {}/{}", userId, year, month);
             }
             case "expenses" -> {
-                expenseRepository.deleteByUserIdAndYearAndMonth(userId, year, month);
+                expenseRepository.deleteByUserIdAndPeriod(userId, range.start(), range.end());
+                rollupService.monthCleared(userId, yearMonth, CategoryType.EXPENSE);
                 log.info("🗑 Deleted expenses userId={} {}/{}", userId, year, month);
             }
             case "all" -> {
-                incomeRepository.deleteByUserIdAndYearAndMonth(userId, year, month);
-                expenseRepository.deleteByUserIdAndYearAndMonth(userId, year, month);
+                incomeRepository.deleteByUserIdAndPeriod(userId, range.start(), range.end());
+                expenseRepository.deleteByUserIdAndPeriod(userId, range.start(), range.end());
+                rollupService.monthCleared(userId, yearMonth, CategoryType.INCOME);
+                rollupService.monthCleared(userId, yearMonth, CategoryType.EXPENSE);
                 log.info("🗑 Deleted all userId={} {}/{}", userId, year, month);
             }
             default -> throw new IllegalArgumentException("Unknown type: " + type);
         }
     }
+
+    @Transactional
+    public RollupDriftReport rebuildRollup(Long userId) {
+        RollupDriftReport report = rollupService.rebuild(userId);
+        log.info("🔁 Rebuilt monthly rollup userId={} rows={} drifts={}",
+                userId, report.getRowsAfter(), report.getDrifts().size());
+        return report;
+    }
 }
@@ -1,6 +1,8 @@
 package com.example.fintrackerpro.service;
 
+import com.example.fintrackerpro.dto.CursorPage;
 import com.example.fintrackerpro.dto.ExpenseResponse;
+import com.example.fintrackerpro.entity.category.CategoryType;
 import com.example.fintrackerpro.entity.expense.Expense;
 import com.example.fintrackerpro.entity.expense.ExpenseRequest;
 import com.example.fintrackerpro.entity.user.User;
@@ -8,12 +10,19 @@ import com.example.fintrackerpro.exception.ResourceNotFoundException;
 import com.example.fintrackerpro.repository.ExpenseRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
@@ -23,19 +32,37 @@ public class ExpenseService {
 
     private final ExpenseRepository expenseRepository;
     private final UserService userService;
+    private final MonthlyRollupService rollupService;
+    private final CategoryService categoryService;
 
+    /**
+     * Своя транзакция на каждую попытку (CategoryService.withCategoryRetry): после отказа FK
+     * на удалённую категорию запись повторяется с актуальным category_id.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ExpenseResponse addExpense(Long userId, ExpenseRequest request) {
-        User user = userService.getUserEntityById(userId);
+        try {
+            return categoryService.withCategoryRetry(userId, CategoryType.EXPENSE, request.getCategory(),
+                    categoryId -> insertExpense(userId, request, categoryId));
+        } catch (DataIntegrityViolationException e) {
+            throw userService.translateWriteFailure(userId, e);
+        }
+    }
+
+    private ExpenseResponse insertExpense(Long userId, ExpenseRequest request, Long categoryId) {
+        User user = userService.getUserReference(userId);
 
         Expense expense = Expense.builder()
                 .user(user)
                 .amount(request.getAmount())
                 .category(request.getCategory())
+                .categoryId(categoryId)
                 .description(request.getDescription())
                 .date(request.getDate().atTime(LocalTime.MIDNIGHT))
                 .build();
 
         Expense saved = expenseRepository.save(expense);
+        rollupService.added(userId, CategoryType.EXPENSE, saved.getDate(), saved.getCategory(), saved.getAmount());
         log.info("✅ Expense created: id={}, userId={}, amount={}, category={}",
                 saved.getId(), userId, saved.getAmount(), saved.getCategory());
         return ExpenseResponse.from(saved);
@@ -50,27 +77,75 @@ public class ExpenseService {
 
     @Transactional(readOnly = true)
     public Page<ExpenseResponse> getExpensesByUser(Long userId, Pageable pageable) {
-        userService.getUserEntityById(userId);
-        return expenseRepository.findByUserId(userId, pageable).map(ExpenseResponse::from);
+        userService.requireExistingUser(userId);
+        return expenseRepository.findResponsesByUserId(userId, pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<ExpenseResponse> getExpensesByUserCursor(Long userId, String cursor, int size) {
+        userService.requireExistingUser(userId);
+        return getExpensesByExistingUserCursor(userId, cursor, size);
+    }
+
+    // Без проверки пользователя: вызывающий уже проверил его (например, DashboardService)
+    @Transactional(readOnly = true)
+    public CursorPage<ExpenseResponse> getExpensesByExistingUserCursor(Long userId, String cursor, int size) {
+        int pageSize = KeysetCursor.normalizeSize(size);
+        // size + 1 строк вместо COUNT(*): лишняя строка = есть следующая страница
+        Pageable limit = PageRequest.ofSize(pageSize + 1);
+
+        List<Expense> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = expenseRepository.findKeysetFirstPage(userId, limit);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            rows = expenseRepository.findKeysetPageAfter(userId, after.date(), after.id(), limit);
+        }
+        return KeysetCursor.toPage(rows, pageSize, ExpenseResponse::from, x -> new KeysetCursor(x.getDate(), x.getId()));
     }
 
     @Transactional(readOnly = true)
     public Page<ExpenseResponse> getExpensesByUserAndMonth(Long userId, int year, int month, Pageable pageable) {
         log.info("Getting expenses for user {} {}/{}", userId, year, month);
-        userService.getUserEntityById(userId);
-        return expenseRepository.findByUserIdAndYearAndMonth(userId, year, month, pageable).map(ExpenseResponse::from);
+        MonthRange range = MonthRange.of(year, month);
+        userService.requireExistingUser(userId);
+        return expenseRepository.findResponsesByUserIdAndPeriod(userId, range.start(), range.end(), pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<ExpenseResponse> getExpensesByUserAndMonthSlice(Long userId, int year, int month, Pageable pageable) {
+        log.info("Getting expenses slice for user {} {}/{}", userId, year, month);
+        MonthRange range = MonthRange.of(year, month);
+        userService.requireExistingUser(userId);
+        return expenseRepository.findResponseSliceByUserIdAndPeriod(userId, range.start(), range.end(), pageable);
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ExpenseResponse updateExpense(Long userId, Long expenseId, ExpenseRequest request) {
+        return categoryService.withCategoryRetry(userId, CategoryType.EXPENSE, request.getCategory(),
+                categoryId -> applyExpenseUpdate(userId, expenseId, request, categoryId));
+    }
+
+    private ExpenseResponse applyExpenseUpdate(Long userId, Long expenseId, ExpenseRequest request, Long categoryId) {
         Expense expense = expenseRepository.findByIdAndUserId(expenseId, userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Expense not found with id: " + expenseId));
 
+        LocalDateTime oldDate = expense.getDate();
+        String oldCategory = expense.getCategory();
+        BigDecimal oldAmount = expense.getAmount();
+
         if (request.getAmount() != null) expense.setAmount(request.getAmount());
-        if (request.getCategory() != null) expense.setCategory(request.getCategory());
+        if (request.getCategory() != null) {
+            expense.setCategory(request.getCategory());
+            expense.setCategoryId(categoryId);
+        }
         if (request.getDescription() != null) expense.setDescription(request.getDescription());
         if (request.getDate() != null) expense.setDate(request.getDate().atTime(LocalTime.MIDNIGHT));
 
         Expense updated = expenseRepository.save(expense);
+        rollupService.changed(userId, CategoryType.EXPENSE,
+                oldDate, oldCategory, oldAmount,
+                updated.getDate(), updated.getCategory(), updated.getAmount());
         log.info("✅ Expense updated: id={}, userId={}, amount={}", expenseId, userId, updated.getAmount());
         return ExpenseResponse.from(updated);
     }
@@ -79,6 +154,7 @@ public class ExpenseService {
         Expense expense = expenseRepository.findByIdAndUserId(expenseId, userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Expense not found with id: " + expenseId));
         expenseRepository.delete(expense);
+        rollupService.removed(userId, CategoryType.EXPENSE, expense.getDate(), expense.getCategory(), expense.getAmount());
         log.info("✅ Expense deleted: id={}, userId={}", expenseId, userId);
     }
 }
@@ -0,0 +1,31 @@
+package com.example.fintrackerpro.service;
+
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Разбор нарушения FK по имени ограничения: SQLSTATE 23503 одинаков для всех внешних ключей,
+ * а PostgreSQL и H2 пишут имя ограничения в сообщение.
+ */
+final class ForeignKeyViolations {
+
+    // SQLSTATE foreign_key_violation (PostgreSQL и H2)
+    private static final String FOREIGN_KEY_VIOLATION = "23503";
+
+    static final Set<String> USER_CONSTRAINTS = Set.of("fk_expenses_user", "fk_incomes_user");
+    static final Set<String> CATEGORY_CONSTRAINTS = Set.of("fk_expenses_category", "fk_incomes_category");
+
+    private ForeignKeyViolations() {
+    }
+
+    static boolean violates(Throwable e, Set<String> constraints) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sql && FOREIGN_KEY_VIOLATION.equals(sql.getSQLState())) {
+                String message = String.valueOf(sql.getMessage()).toLowerCase(Locale.ROOT);
+                return constraints.stream().anyMatch(message::contains);
+            }
+        }
+        return false;
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.fintrackerpro.service;
 
+import com.example.fintrackerpro.dto.CursorPage;
 import com.example.fintrackerpro.dto.IncomeResponse;
+import com.example.fintrackerpro.entity.category.CategoryType;
 import com.example.fintrackerpro.entity.income.Income;
 import com.example.fintrackerpro.entity.income.IncomeRequest;
 import com.example.fintrackerpro.entity.user.User;
@@ -8,12 +10,19 @@ import com.example.fintrackerpro.exception.ResourceNotFoundException;
 import com.example.fintrackerpro.repository.IncomeRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
@@ -23,19 +32,37 @@ public class IncomeService {
 
     private final IncomeRepository incomeRepository;
     private final UserService userService;
+    private final MonthlyRollupService rollupService;
+    private final CategoryService categoryService;
 
+    /**
+     * Своя транзакция на каждую попытку (CategoryService.withCategoryRetry): после отказа FK
+     * на удалённую категорию запись повторяется с актуальным category_id.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public IncomeResponse addIncome(Long userId, IncomeRequest request) {
-        User user = userService.getUserEntityById(userId);
+        try {
+            return categoryService.withCategoryRetry(userId, CategoryType.INCOME, request.getCategory(),
+                    categoryId -> insertIncome(userId, request, categoryId));
+        } catch (DataIntegrityViolationException e) {
+            throw userService.translateWriteFailure(userId, e);
+        }
+    }
+
+    private IncomeResponse insertIncome(Long userId, IncomeRequest request, Long categoryId) {
+        User user = userService.getUserReference(userId);
 
         Income income = Income.builder()
                 .user(user)
                 .amount(request.getAmount())
                 .category(request.getCategory())
+                .categoryId(categoryId)
                 .source(request.getSource())
                 .date(request.getDate().atTime(LocalTime.MIDNIGHT))
                 .build();
 
         Income saved = incomeRepository.save(income);
+        rollupService.added(userId, CategoryType.INCOME, saved.getDate(), saved.getCategory(), saved.getAmount());
         log.info("✅ Income created: id={}, userId={}, amount={}, category={}",
                 saved.getId(), userId, saved.getAmount(), saved.getCategory());
         return IncomeResponse.from(saved);
@@ -50,27 +77,75 @@ public class IncomeService {
 
     @Transactional(readOnly = true)
     public Page<IncomeResponse> getIncomesByUser(Long userId, Pageable pageable) {
-        userService.getUserEntityById(userId);
-        return incomeRepository.findByUserIdOrderByCreatedAtDesc(userId, pageable).map(IncomeResponse::from);
+        userService.requireExistingUser(userId);
+        return incomeRepository.findResponsesByUserIdOrderByCreatedAtDesc(userId, pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<IncomeResponse> getIncomesByUserCursor(Long userId, String cursor, int size) {
+        userService.requireExistingUser(userId);
+        return getIncomesByExistingUserCursor(userId, cursor, size);
+    }
+
+    // Без проверки пользователя: вызывающий уже проверил его (например, DashboardService)
+    @Transactional(readOnly = true)
+    public CursorPage<IncomeResponse> getIncomesByExistingUserCursor(Long userId, String cursor, int size) {
+        int pageSize = KeysetCursor.normalizeSize(size);
+        // size + 1 строк вместо COUNT(*): лишняя строка = есть следующая страница
+        Pageable limit = PageRequest.ofSize(pageSize + 1);
+
+        List<Income> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = incomeRepository.findKeysetFirstPage(userId, limit);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            rows = incomeRepository.findKeysetPageAfter(userId, after.date(), after.id(), limit);
+        }
+        return KeysetCursor.toPage(rows, pageSize, IncomeResponse::from, x -> new KeysetCursor(x.getDate(), x.getId()));
     }
 
     @Transactional(readOnly = true)
     public Page<IncomeResponse> getIncomesByUserAndMonth(Long userId, int year, int month, Pageable pageable) {
         log.info("Getting incomes for user {} {}/{}", userId, year, month);
-        userService.getUserEntityById(userId);
-        return incomeRepository.findByUserIdAndYearAndMonth(userId, year, month, pageable).map(IncomeResponse::from);
+        MonthRange range = MonthRange.of(year, month);
+        userService.requireExistingUser(userId);
+        return incomeRepository.findResponsesByUserIdAndPeriod(userId, range.start(), range.end(), pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<IncomeResponse> getIncomesByUserAndMonthSlice(Long userId, int year, int month, Pageable pageable) {
+        log.info("Getting incomes slice for user {} {}/{}", userId, year, month);
+        MonthRange range = MonthRange.of(year, month);
+        userService.requireExistingUser(userId);
+        return incomeRepository.findResponseSliceByUserIdAndPeriod(userId, range.start(), range.end(), pageable);
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public IncomeResponse updateIncome(Long userId, Long incomeId, IncomeRequest request) {
+        return categoryService.withCategoryRetry(userId, CategoryType.INCOME, request.getCategory(),
+                categoryId -> applyIncomeUpdate(userId, incomeId, request, categoryId));
+    }
+
+    private IncomeResponse applyIncomeUpdate(Long userId, Long incomeId, IncomeRequest request, Long categoryId) {
         Income income = incomeRepository.findByIdAndUserId(incomeId, userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Income not found with id: " + incomeId));
 
+        LocalDateTime oldDate = income.getDate();
+        String oldCategory = income.getCategory();
+        BigDecimal oldAmount = income.getAmount();
+
         if (request.getAmount() != null) income.setAmount(request.getAmount());
-        if (request.getCategory() != null) income.setCategory(request.getCategory());
+        if (request.getCategory() != null) {
+            income.setCategory(request.getCategory());
+            income.setCategoryId(categoryId);
+        }
         if (request.getSource() != null) income.setSource(request.getSource());
         if (request.getDate() != null) income.setDate(request.getDate().atTime(LocalTime.MIDNIGHT));
 
         Income updated = incomeRepository.save(income);
+        rollupService.changed(userId, CategoryType.INCOME,
+                oldDate, oldCategory, oldAmount,
+                updated.getDate(), updated.getCategory(), updated.getAmount());
         log.info("✅ Income updated: id={}, userId={}, amount={}", incomeId, userId, updated.getAmount());
         return IncomeResponse.from(updated);
     }
@@ -79,6 +154,7 @@ public class IncomeService {
         Income income = incomeRepository.findByIdAndUserId(incomeId, userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Income not found with id: " + incomeId));
         incomeRepository.delete(income);
+        rollupService.removed(userId, CategoryType.INCOME, income.getDate(), income.getCategory(), income.getAmount());
         log.info("✅ Income deleted: id={}, userId={}", incomeId, userId);
     }
 }
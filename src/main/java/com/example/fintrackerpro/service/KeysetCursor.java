@@ -0,0 +1,58 @@
+package com.example.fintrackerpro.service;
+
+import com.example.fintrackerpro.dto.CursorPage;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Позиция в выборке, отсортированной по (date DESC, id DESC). Клиенту отдаётся
+ * как непрозрачная base64url-строка, следующая страница ищется через WHERE по (date, id)
+ * вместо OFFSET - глубина страницы не влияет на стоимость запроса.
+ */
+public record KeysetCursor(LocalDateTime date, Long id) {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    public String encode() {
+        String raw = date + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            return new KeysetCursor(LocalDateTime.parse(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Некорректный курсор");
+        }
+    }
+
+    public static int normalizeSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * rows запрошены с лимитом size + 1: лишняя строка означает, что есть следующая страница.
+     */
+    public static <E, R> CursorPage<R> toPage(List<E> rows, int size,
+                                              Function<E, R> mapper,
+                                              Function<E, KeysetCursor> cursorOf) {
+        boolean hasNext = rows.size() > size;
+        List<E> page = hasNext ? rows.subList(0, size) : rows;
+
+        List<R> content = new ArrayList<>(page.size());
+        for (E row : page) {
+            content.add(mapper.apply(row));
+        }
+        String next = hasNext ? cursorOf.apply(page.get(page.size() - 1)).encode() : null;
+        return new CursorPage<>(content, next, hasNext);
+    }
+}
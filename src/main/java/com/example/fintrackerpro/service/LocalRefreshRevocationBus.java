@@ -0,0 +1,31 @@
+package com.example.fintrackerpro.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Доставка отзывов внутри одного процесса: для одного инстанса и тестов на H2,
+ * где LISTEN/NOTIFY нет. Несколько подписчиков на одном экземпляре изображают несколько инстансов.
+ */
+@Component
+@ConditionalOnProperty(name = "app.refresh-revocation.channel", havingValue = "local", matchIfMissing = true)
+public class LocalRefreshRevocationBus implements RefreshRevocationBus {
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(String refreshId, Instant expiresAt) {
+        for (Listener listener : listeners) {
+            listener.revoked(refreshId, expiresAt);
+        }
+    }
+
+    @Override
+    public void subscribe(Listener listener) {
+        listeners.add(listener);
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.fintrackerpro.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+/**
+ * Полуоткрытый интервал [start, end) для одного календарного месяца.
+ * Запросы по месяцу сравнивают date с границами напрямую, чтобы Postgres
+ * мог использовать idx_*_user_date как range scan вместо YEAR()/MONTH() по каждой строке.
+ */
+public record MonthRange(LocalDateTime start, LocalDateTime end) {
+
+    public static MonthRange of(int year, int month) {
+        try {
+            return of(YearMonth.of(year, month));
+        } catch (DateTimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Некорректный месяц: " + year + "/" + month);
+        }
+    }
+
+    public static MonthRange of(YearMonth yearMonth) {
+        return new MonthRange(
+                yearMonth.atDay(1).atStartOfDay(),
+                yearMonth.plusMonths(1).atDay(1).atStartOfDay()
+        );
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.fintrackerpro.service;
+
+import com.example.fintrackerpro.dto.RollupDriftReport;
+import com.example.fintrackerpro.entity.category.CategoryType;
+import com.example.fintrackerpro.entity.rollup.MonthlyRollup;
+import com.example.fintrackerpro.entity.rollup.MonthlyRollupId;
+import com.example.fintrackerpro.repository.MonthlyRollupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Поддерживает monthly_rollup в той же транзакции, что и изменение транзакции пользователя,
+ * и сбрасывает закэшированные сводки затронутых месяцев после коммита.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class MonthlyRollupService {
+
+    private final MonthlyRollupRepository rollupRepository;
+    private final SummaryCache summaryCache;
+
+    public void added(Long userId, CategoryType type, LocalDateTime date, String category, BigDecimal amount) {
+        rollupRepository.applyDelta(userId, monthOf(date), type.name(), key(category), amount, 1);
+        summaryCache.evictMonths(userId, List.of(YearMonth.from(date)));
+    }
+
+    public void removed(Long userId, CategoryType type, LocalDateTime date, String category, BigDecimal amount) {
+        LocalDate yearMonth = monthOf(date);
+        rollupRepository.applyDelta(userId, yearMonth, type.name(), key(category), amount.negate(), -1);
+        rollupRepository.deleteIfEmpty(userId, yearMonth, type.name(), key(category));
+        summaryCache.evictMonths(userId, List.of(YearMonth.from(date)));
+    }
+
+    public void changed(Long userId, CategoryType type,
+                        LocalDateTime oldDate, String oldCategory, BigDecimal oldAmount,
+                        LocalDateTime newDate, String newCategory, BigDecimal newAmount) {
+        boolean sameRow = monthOf(oldDate).equals(monthOf(newDate))
+                && key(oldCategory).equals(key(newCategory));
+        if (sameRow) {
+            BigDecimal diff = newAmount.subtract(oldAmount);
+            if (diff.signum() != 0) {
+                rollupRepository.applyDelta(userId, monthOf(newDate), type.name(), key(newCategory), diff, 0);
+                summaryCache.evictMonths(userId, List.of(YearMonth.from(newDate)));
+            }
+            return;
+        }
+        removed(userId, type, oldDate, oldCategory, oldAmount);
+        added(userId, type, newDate, newCategory, newAmount);
+    }
+
+    /**
+     * Итоги пакетной вставки: одна applyDelta на (месяц, категорию), а не на каждую строку.
+     */
+    public void addedAll(Long userId, CategoryType type, Batch batch) {
+        if (batch.totals.isEmpty()) {
+            return;
+        }
+        batch.totals.forEach((k, total) -> rollupRepository.applyDelta(
+                userId, k.month().atDay(1), type.name(), k.category(), total, batch.counts.get(k)));
+        summaryCache.evictMonths(userId, batch.months());
+    }
+
+    public void monthCleared(Long userId, YearMonth yearMonth, CategoryType type) {
+        rollupRepository.deleteMonth(userId, yearMonth.atDay(1), type.name());
+        summaryCache.evictMonths(userId, List.of(yearMonth));
+    }
+
+    /**
+     * Перенос строк с подписи from на подпись to после переименования/слияния категории:
+     * два запроса по строкам rollup этой подписи вместо пересчёта всей истории пользователя.
+     * Подпись сравнивается без учёта регистра, как в CategoryService.findCategoryId.
+     */
+    public void relabel(Long userId, CategoryType type, String from, String to) {
+        rollupRepository.mergeLabel(userId, type.name(), from, to);
+        rollupRepository.deleteLabel(userId, type.name(), from, to);
+        summaryCache.evictUser(userId);
+    }
+
+    /**
+     * Пересчитывает rollup пользователя из incomes/expenses и возвращает расхождения,
+     * найденные до пересчёта.
+     */
+    public RollupDriftReport rebuild(Long userId) {
+        Map<MonthlyRollupId, MonthlyRollup> stored = index(rollupRepository.findByIdUserId(userId));
+
+        rollupRepository.deleteAllByUser(userId);
+        rollupRepository.insertFromSource(userId);
+        summaryCache.evictUser(userId);
+
+        Map<MonthlyRollupId, MonthlyRollup> actual = index(rollupRepository.findByIdUserId(userId));
+
+        Set<MonthlyRollupId> keys = new HashSet<>(stored.keySet());
+        keys.addAll(actual.keySet());
+
+        List<RollupDriftReport.Drift> drifts = new ArrayList<>();
+        for (MonthlyRollupId id : keys) {
+            MonthlyRollup before = stored.get(id);
+            MonthlyRollup after = actual.get(id);
+            BigDecimal storedTotal = before != null ? before.getTotal() : BigDecimal.ZERO;
+            BigDecimal actualTotal = after != null ? after.getTotal() : BigDecimal.ZERO;
+            long storedCount = before != null ? before.getCount() : 0;
+            long actualCount = after != null ? after.getCount() : 0;
+
+            if (storedTotal.compareTo(actualTotal) != 0 || storedCount != actualCount) {
+                drifts.add(RollupDriftReport.Drift.builder()
+                        .yearMonth(id.getYearMonth())
+                        .type(id.getType())
+                        .category(id.getCategory())
+                        .storedTotal(storedTotal)
+                        .actualTotal(actualTotal)
+                        .storedCount(storedCount)
+                        .actualCount(actualCount)
+                        .build());
+            }
+        }
+
+        if (!drifts.isEmpty()) {
+            log.warn("⚠️ Monthly rollup drift fixed for userId={}: {} row(s)", userId, drifts.size());
+        }
+
+        return RollupDriftReport.builder()
+                .userId(userId)
+                .rowsBefore(stored.size())
+                .rowsAfter(actual.size())
+                .drifts(drifts)
+                .build();
+    }
+
+    /** Накопитель дельт rollup для пакетных операций. Размер - число пар (месяц, категория). */
+    public static final class Batch {
+
+        private final Map<BatchKey, BigDecimal> totals = new HashMap<>();
+        private final Map<BatchKey, Long> counts = new HashMap<>();
+
+        public void add(LocalDateTime date, String category, BigDecimal amount) {
+            BatchKey k = new BatchKey(YearMonth.from(date), key(category));
+            totals.merge(k, amount, BigDecimal::add);
+            counts.merge(k, 1L, Long::sum);
+        }
+
+        private Set<YearMonth> months() {
+            Set<YearMonth> months = new HashSet<>();
+            for (BatchKey k : totals.keySet()) {
+                months.add(k.month());
+            }
+            return months;
+        }
+    }
+
+    private record BatchKey(YearMonth month, String category) {}
+
+    static LocalDate monthOf(LocalDateTime date) {
+        return YearMonth.from(date).atDay(1);
+    }
+
+    private static String key(String category) {
+        return Objects.requireNonNullElse(category, "");
+    }
+
+    private static Map<MonthlyRollupId, MonthlyRollup> index(List<MonthlyRollup> rows) {
+        Map<MonthlyRollupId, MonthlyRollup> byId = new HashMap<>();
+        for (MonthlyRollup row : rows) {
+            byId.put(row.getId(), row);
+        }
+        return byId;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.fintrackerpro.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Заранее создаёт месячные партиции expenses/incomes (V14), чтобы новые строки
+ * не копились в DEFAULT-партиции. Только для Postgres: в H2-профиле выключено.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(prefix = "app.partitions", name = "enabled", havingValue = "true")
+public class PartitionMaintenanceService {
+
+    static final List<String> PARTITIONED_TABLES = List.of("expenses", "incomes");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int monthsAhead;
+    private final Clock clock;
+
+    @Autowired
+    public PartitionMaintenanceService(JdbcTemplate jdbcTemplate,
+                                       @Value("${app.partitions.months-ahead:3}") int monthsAhead) {
+        this(jdbcTemplate, monthsAhead, Clock.systemDefaultZone());
+    }
+
+    PartitionMaintenanceService(JdbcTemplate jdbcTemplate, int monthsAhead, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.monthsAhead = monthsAhead;
+        this.clock = clock;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.partitions.cron:0 0 3 * * *}")
+    public void ensureFuturePartitions() {
+        YearMonth current = YearMonth.now(clock);
+        int created = 0;
+        try {
+            for (String table : PARTITIONED_TABLES) {
+                for (int i = 0; i <= monthsAhead; i++) {
+                    YearMonth month = current.plusMonths(i);
+                    Boolean added = jdbcTemplate.queryForObject(
+                            "SELECT create_month_partition(?, ?)", Boolean.class, table, month.atDay(1));
+                    if (Boolean.TRUE.equals(added)) {
+                        created++;
+                        log.info("🧱 Created partition {} {}", table, month);
+                    }
+                }
+            }
+        } catch (DataAccessException e) {
+            // Не критично до начала месяца без партиции: строки временно попадут в DEFAULT
+            log.error("❌ Failed to create partitions: {}", e.getMessage());
+            return;
+        }
+        log.debug("Partitions checked: {} months ahead, created={}", monthsAhead, created);
+    }
+}
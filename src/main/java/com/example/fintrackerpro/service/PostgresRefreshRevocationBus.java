@@ -0,0 +1,149 @@
+package com.example.fintrackerpro.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Отзывы через Postgres LISTEN/NOTIFY. Слушатель держит отдельное соединение мимо Hikari,
+ * чтобы не занимать слот пула навсегда. После переподключения подписчики сбрасывают кэш:
+ * NOTIFY, отправленные во время разрыва, не доставляются повторно.
+ */
+@Component
+@ConditionalOnProperty(name = "app.refresh-revocation.channel", havingValue = "postgres")
+@Slf4j
+public class PostgresRefreshRevocationBus implements RefreshRevocationBus {
+
+    static final String CHANNEL = "refresh_revoked";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final int pollMs;
+    private final long reconnectDelayMs;
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    public PostgresRefreshRevocationBus(JdbcTemplate jdbcTemplate,
+                                        @Value("${spring.datasource.url}") String url,
+                                        @Value("${spring.datasource.username:}") String username,
+                                        @Value("${spring.datasource.password:}") String password,
+                                        @Value("${app.refresh-revocation.poll-ms:1000}") int pollMs,
+                                        @Value("${app.refresh-revocation.reconnect-delay-ms:5000}") long reconnectDelayMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.pollMs = pollMs;
+        this.reconnectDelayMs = reconnectDelayMs;
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        listenerThread = Thread.ofPlatform()
+                .name("refresh-revocation-listener")
+                .daemon()
+                .start(this::listen);
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    @Override
+    public void publish(String refreshId, Instant expiresAt) {
+        try {
+            // pg_notify вместо NOTIFY: канал и payload передаются параметрами
+            jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", CHANNEL, encode(refreshId, expiresAt));
+        } catch (DataAccessException e) {
+            // Отзыв в базе уже записан, соседи увидят его после TTL своего кэша
+            log.warn("⚠️ Refresh revocation not broadcast: id={}, error={}", refreshId, e.getMessage());
+        }
+    }
+
+    @Override
+    public void subscribe(Listener listener) {
+        listeners.add(listener);
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                try (Statement st = connection.createStatement()) {
+                    st.execute("LISTEN " + CHANNEL);
+                }
+                PGConnection pg = connection.unwrap(PGConnection.class);
+                listeners.forEach(Listener::resync);
+                log.info("📡 Listening for refresh revocations on '{}'", CHANNEL);
+
+                while (running) {
+                    PGNotification[] notifications = pg.getNotifications(pollMs);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification n : notifications) {
+                        deliver(n.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("⚠️ Refresh revocation listener disconnected, retry in {} ms: {}",
+                        reconnectDelayMs, e.getMessage());
+                try {
+                    Thread.sleep(reconnectDelayMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    void deliver(String payload) {
+        int sep = payload == null ? -1 : payload.lastIndexOf(':');
+        if (sep <= 0) {
+            log.warn("⚠️ Malformed refresh revocation payload: {}", payload);
+            return;
+        }
+        String refreshId = payload.substring(0, sep);
+        Instant expiresAt;
+        try {
+            expiresAt = Instant.ofEpochMilli(Long.parseLong(payload.substring(sep + 1)));
+        } catch (NumberFormatException e) {
+            log.warn("⚠️ Malformed refresh revocation payload: {}", payload);
+            return;
+        }
+        for (Listener listener : listeners) {
+            listener.revoked(refreshId, expiresAt);
+        }
+    }
+
+    static String encode(String refreshId, Instant expiresAt) {
+        return refreshId + ":" + expiresAt.toEpochMilli();
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.fintrackerpro.service;
+
+import com.example.fintrackerpro.dto.CursorPage;
+import com.example.fintrackerpro.dto.ExpenseResponse;
+import com.example.fintrackerpro.dto.IncomeResponse;
+import com.example.fintrackerpro.dto.MonthlySummaryDto;
+import com.example.fintrackerpro.exception.ResourceNotFoundException;
+import com.example.fintrackerpro.repository.ReactiveReadRepository;
+import com.example.fintrackerpro.repository.ReactiveReadRepository.TransactionRow;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Неблокирующие версии чтений SummaryService и keyset-листингов: ответы те же,
+ * но запрос не держит ни поток сервлета, ни JDBC-соединение, пока ждёт БД.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(prefix = "app.reactive", name = "enabled", havingValue = "true")
+public class ReactiveReadService {
+
+    private final ReactiveReadRepository repository;
+
+    public Mono<MonthlySummaryDto> getMonthlySummary(Long userId, int year, int month) {
+        return Mono.defer(() -> {
+            YearMonth yearMonth = YearMonth.from(MonthRange.of(year, month).start());
+            return repository.getMonthTotals(userId, yearMonth.atDay(1), yearMonth.plusMonths(1).atDay(1));
+        }).flatMap(totals -> {
+            if (!totals.userExists()) {
+                return Mono.error(new ResourceNotFoundException("User not found with id: " + userId));
+            }
+            return Mono.just(SummaryService.toSummary(year, month, totals.totalIncome(), totals.totalExpenses(),
+                    totals.incomeCount(), totals.expenseCount()));
+        });
+    }
+
+    public Mono<List<String>> getUsedMonths(Long userId) {
+        // Новые месяцы сначала, "2026-02"
+        return repository.findUsedMonths(userId)
+                .map(LocalDate::toString)
+                .map(date -> date.substring(0, 7))
+                .collectList();
+    }
+
+    public Mono<CursorPage<ExpenseResponse>> getExpensesByUserCursor(Long userId, String cursor, int size) {
+        return page(cursor, size, (after, limit) -> repository.findExpensesKeyset(
+                        userId, after != null ? after.date() : null, after != null ? after.id() : null, limit),
+                row -> ExpenseResponse.builder()
+                        .id(row.id())
+                        .userId(row.userId())
+                        .amount(row.amount())
+                        .category(row.category())
+                        .description(row.text())
+                        .date(row.date().toLocalDate())
+                        .build());
+    }
+
+    public Mono<CursorPage<IncomeResponse>> getIncomesByUserCursor(Long userId, String cursor, int size) {
+        return page(cursor, size, (after, limit) -> repository.findIncomesKeyset(
+                        userId, after != null ? after.date() : null, after != null ? after.id() : null, limit),
+                row -> IncomeResponse.builder()
+                        .id(row.id())
+                        .userId(row.userId())
+                        .amount(row.amount())
+                        .category(row.category())
+                        .source(row.text())
+                        .date(row.date().toLocalDate())
+                        .build());
+    }
+
+    private <R> Mono<CursorPage<R>> page(String cursor, int size,
+                                         KeysetQuery query,
+                                         Function<TransactionRow, R> mapper) {
+        return Mono.defer(() -> {
+            int pageSize = KeysetCursor.normalizeSize(size);
+            KeysetCursor after = cursor == null || cursor.isBlank() ? null : KeysetCursor.decode(cursor);
+            // Лишняя строка - признак следующей страницы
+            return query.fetch(after, pageSize + 1)
+                    .collectList()
+                    .map(rows -> KeysetCursor.toPage(rows, pageSize, mapper,
+                            row -> new KeysetCursor(row.date(), row.id())));
+        });
+    }
+
+    @FunctionalInterface
+    private interface KeysetQuery {
+        Flux<TransactionRow> fetch(KeysetCursor after, int limit);
+    }
+}
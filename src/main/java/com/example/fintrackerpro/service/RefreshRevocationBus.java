@@ -0,0 +1,23 @@
+package com.example.fintrackerpro.service;
+
+import java.time.Instant;
+
+/**
+ * Рассылка отзывов refresh-токенов между инстансами: каждый инстанс держит свой
+ * RefreshTokenCache и должен узнать об отзыве, сделанном на соседнем.
+ */
+public interface RefreshRevocationBus {
+
+    /** Сообщает всем инстансам (включая текущий) об отзыве токена, живущего до expiresAt. */
+    void publish(String refreshId, Instant expiresAt);
+
+    void subscribe(Listener listener);
+
+    interface Listener {
+
+        void revoked(String refreshId, Instant expiresAt);
+
+        /** Канал переподключился: отзывы за время разрыва могли потеряться. */
+        void resync();
+    }
+}
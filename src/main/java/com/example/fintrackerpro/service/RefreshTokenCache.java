@@ -0,0 +1,116 @@
+package com.example.fintrackerpro.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Function;
+
+/**
+ * Активные refresh-сессии по refresh id и множество отозванных id.
+ * Запись об активной сессии живёт до expiresAt токена, но не дольше TTL: так отзыв
+ * в обход приложения (руками в базе) подхватывается без перезапуска.
+ * Отозванный id хранится до expiresAt - дальше токен отвергнется и без него.
+ */
+@Component
+@Slf4j
+public class RefreshTokenCache implements RefreshRevocationBus.Listener {
+
+    private static final Tags TAGS = Tags.of("service", "fintracker-api", "env", "prod");
+
+    private final Cache<String, ActiveRefresh> active;
+    private final Cache<String, Instant> revoked;
+
+    public RefreshTokenCache(MeterRegistry registry,
+                             @Value("${app.cache.refresh-tokens.max-size:100000}") long maxSize,
+                             @Value("${app.cache.refresh-tokens.ttl-seconds:900}") long ttlSeconds) {
+        this.active = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilExpiry<String, ActiveRefresh>(ActiveRefresh::expiresAt, Duration.ofSeconds(ttlSeconds)))
+                .recordStats()
+                .build();
+        // Вытеснение по размеру безопасно: без записи в active следующий запрос идёт в базу
+        this.revoked = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilExpiry<String, Instant>(Function.identity(), null))
+                .build();
+        CaffeineCacheMetrics.monitor(registry, active, "refresh.active", TAGS);
+    }
+
+    /** Активная сессия из кэша или null, если её нет, она истекла или отозвана. */
+    public ActiveRefresh getActive(String refreshId) {
+        if (isRevoked(refreshId)) {
+            return null;
+        }
+        ActiveRefresh cached = active.getIfPresent(refreshId);
+        return cached == null || cached.isExpired() ? null : cached;
+    }
+
+    public boolean isRevoked(String refreshId) {
+        return revoked.getIfPresent(refreshId) != null;
+    }
+
+    public void putActive(String refreshId, ActiveRefresh refresh) {
+        // Загрузка из базы могла начаться до отзыва - не возвращаем отозванную сессию в кэш
+        if (!isRevoked(refreshId)) {
+            active.put(refreshId, refresh);
+        }
+    }
+
+    @Override
+    public void revoked(String refreshId, Instant expiresAt) {
+        if (expiresAt.isAfter(Instant.now())) {
+            revoked.put(refreshId, expiresAt);
+        }
+        active.invalidate(refreshId);
+    }
+
+    @Override
+    public void resync() {
+        active.invalidateAll();
+        log.info("🔄 Refresh token cache cleared after revocation channel reconnect");
+    }
+
+    /** Всё, что нужно для проверки refresh-токена без обращения к refresh_tokens. */
+    public record ActiveRefresh(Long userId, String tokenHash, Instant expiresAt) {
+        public boolean isExpired() {
+            return !expiresAt.isAfter(Instant.now());
+        }
+    }
+
+    /** Запись живёт до момента, который возвращает expiresAt, и не дольше maxTtl (если задан). */
+    private static final class UntilExpiry<K, V> implements Expiry<K, V> {
+
+        private final Function<V, Instant> expiresAt;
+        private final long maxTtlNanos;
+
+        private UntilExpiry(Function<V, Instant> expiresAt, Duration maxTtl) {
+            this.expiresAt = expiresAt;
+            this.maxTtlNanos = maxTtl == null ? Long.MAX_VALUE : maxTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(K key, V value, long currentTime) {
+            long untilExp = Duration.between(Instant.now(), expiresAt.apply(value)).toNanos();
+            return Math.max(0, Math.min(untilExp, maxTtlNanos));
+        }
+
+        @Override
+        public long expireAfterUpdate(K key, V value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(K key, V value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
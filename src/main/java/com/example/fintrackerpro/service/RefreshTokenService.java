@@ -2,7 +2,7 @@ package com.example.fintrackerpro.service;
 
 import com.example.fintrackerpro.entity.auth.RefreshTokenEntity;
 import com.example.fintrackerpro.repository.RefreshTokenRepository;
-import lombok.RequiredArgsConstructor;
+import com.example.fintrackerpro.service.RefreshTokenCache.ActiveRefresh;
 import org.springframework.stereotype.Service;
 
 import java.nio.charset.StandardCharsets;
@@ -11,32 +11,34 @@ import java.time.Instant;
 import java.util.HexFormat;
 import java.util.Optional;
 
+/**
+ * Refresh-сессии. Проверка идёт через RefreshTokenCache: для уже известной сессии
+ * refresh_tokens не читается. Отзыв пишется в базу и рассылается остальным инстансам.
+ */
 @Service
-@RequiredArgsConstructor
 public class RefreshTokenService {
 
     private final RefreshTokenRepository repo;
+    private final RefreshTokenCache cache;
+    private final RefreshRevocationBus revocationBus;
+
+    public RefreshTokenService(RefreshTokenRepository repo,
+                               RefreshTokenCache cache,
+                               RefreshRevocationBus revocationBus) {
+        this.repo = repo;
+        this.cache = cache;
+        this.revocationBus = revocationBus;
+        revocationBus.subscribe(cache);
+    }
 
     public record StoredRefresh(Long userId) {}
 
     public StoredRefresh validateAndGet(String refreshId, String refreshToken) {
-        Optional<RefreshTokenEntity> opt = repo.findById(refreshId);
-        if (opt.isEmpty()) {
-            return null;
-        }
-
-        RefreshTokenEntity entity = opt.get();
-
-        if (!entity.isActive()) {
-            return null;
-        }
-
-        String incomingHash = sha256(refreshToken);
-        if (!incomingHash.equals(entity.getTokenHash())) {
+        ActiveRefresh refresh = findActive(refreshId);
+        if (refresh == null || !hashMatches(refresh, refreshToken)) {
             return null;
         }
-
-        return new StoredRefresh(entity.getUserId());
+        return new StoredRefresh(refresh.userId());
     }
 
     public void create(String refreshId, Long userId, String refreshJwt, Instant expiresAt) {
@@ -49,23 +51,55 @@ public class RefreshTokenService {
                 .build();
 
         repo.save(e);
+        cache.putActive(refreshId, toActive(e));
     }
 
-    public RefreshTokenEntity requireActive(String id, String refreshJwt) {
-        RefreshTokenEntity e = repo.findByIdAndRevokedAtIsNull(id)
-                .orElseThrow(() -> new IllegalArgumentException("Invalid refresh token"));
-        if (!e.isActive()) throw new IllegalArgumentException("Refresh expired/revoked");
-        if (!e.getTokenHash().equals(sha256(refreshJwt))) throw new IllegalArgumentException("Invalid refresh token");
-        return e;
+    public StoredRefresh requireActive(String id, String refreshJwt) {
+        ActiveRefresh refresh = findActive(id);
+        if (refresh == null) throw new IllegalArgumentException("Refresh expired/revoked");
+        if (!hashMatches(refresh, refreshJwt)) throw new IllegalArgumentException("Invalid refresh token");
+        return new StoredRefresh(refresh.userId());
     }
 
     public void revoke(String id) {
         repo.findById(id).ifPresent(e -> {
             e.setRevokedAt(Instant.now());
             repo.save(e);
+            // Свой кэш - сразу, не дожидаясь доставки через шину
+            cache.revoked(id, e.getExpiresAt());
+            revocationBus.publish(id, e.getExpiresAt());
         });
     }
 
+    private ActiveRefresh findActive(String refreshId) {
+        if (cache.isRevoked(refreshId)) {
+            return null;
+        }
+        ActiveRefresh cached = cache.getActive(refreshId);
+        if (cached != null) {
+            return cached;
+        }
+
+        Optional<RefreshTokenEntity> opt = repo.findById(refreshId);
+        if (opt.isEmpty() || !opt.get().isActive()) {
+            return null;
+        }
+        ActiveRefresh loaded = toActive(opt.get());
+        cache.putActive(refreshId, loaded);
+        return loaded;
+    }
+
+    private static ActiveRefresh toActive(RefreshTokenEntity e) {
+        return new ActiveRefresh(e.getUserId(), e.getTokenHash(), e.getExpiresAt());
+    }
+
+    private static boolean hashMatches(ActiveRefresh refresh, String refreshToken) {
+        // Сравнение за постоянное время: по времени ответа не подобрать префикс хэша
+        return MessageDigest.isEqual(
+                sha256(refreshToken).getBytes(StandardCharsets.US_ASCII),
+                refresh.tokenHash().getBytes(StandardCharsets.US_ASCII));
+    }
+
     private static String sha256(String s) {
         try {
             MessageDigest md = MessageDigest.getInstance("SHA-256");
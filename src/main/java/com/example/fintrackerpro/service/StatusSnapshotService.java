@@ -0,0 +1,145 @@
+package com.example.fintrackerpro.service;
+
+import com.example.fintrackerpro.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.actuate.info.InfoEndpoint;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Снимок для публичного /status и гейджа fintracker_users_total. Число пользователей,
+ * health (с пингом БД) и info считаются по расписанию, запросы и Prometheus читают готовый снимок:
+ * анонимный клиент или частый scrape не создают нагрузки на базу.
+ * Для большой таблицы users берётся оценка pg_class.reltuples вместо COUNT(*).
+ */
+@Service
+@Slf4j
+public class StatusSnapshotService {
+
+    static final String RELTUPLES_SQL = "SELECT reltuples::bigint FROM pg_class WHERE oid = 'users'::regclass";
+
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final HealthEndpoint healthEndpoint;
+    private final InfoEndpoint infoEndpoint;
+    private final boolean approximateCount;
+    private final long exactCountBelow;
+    private final Clock clock;
+
+    private volatile Snapshot snapshot = Snapshot.UNKNOWN;
+
+    @Autowired
+    public StatusSnapshotService(UserRepository userRepository,
+                                 JdbcTemplate jdbcTemplate,
+                                 HealthEndpoint healthEndpoint,
+                                 InfoEndpoint infoEndpoint,
+                                 @Value("${app.status.approximate-count:true}") boolean approximateCount,
+                                 @Value("${app.status.exact-count-below:100000}") long exactCountBelow) {
+        this(userRepository, jdbcTemplate, healthEndpoint, infoEndpoint,
+                approximateCount, exactCountBelow, Clock.systemDefaultZone());
+    }
+
+    StatusSnapshotService(UserRepository userRepository, JdbcTemplate jdbcTemplate,
+                          HealthEndpoint healthEndpoint, InfoEndpoint infoEndpoint,
+                          boolean approximateCount, long exactCountBelow, Clock clock) {
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.healthEndpoint = healthEndpoint;
+        this.infoEndpoint = infoEndpoint;
+        this.approximateCount = approximateCount;
+        this.exactCountBelow = exactCountBelow;
+        this.clock = clock;
+    }
+
+    public Snapshot current() {
+        return snapshot;
+    }
+
+    /** Для гейджа: NaN, пока первый снимок не снят. */
+    public double usersTotal() {
+        Long users = snapshot.usersTotal();
+        return users == null ? Double.NaN : users;
+    }
+
+    /**
+     * Части снимка обновляются независимо: упавший COUNT не должен оставлять в /status
+     * прошлый "UP" - health как раз и покажет, что база недоступна. Число пользователей
+     * при сбое остаётся прошлым, usersCountedAt показывает, насколько оно устарело.
+     */
+    @Scheduled(fixedDelayString = "${app.status.refresh-interval-ms:30000}")
+    public void refresh() {
+        Snapshot previous = snapshot;
+        Instant now = clock.instant();
+
+        Long users = previous.usersTotal();
+        Instant usersCountedAt = previous.usersCountedAt();
+        try {
+            users = countUsers();
+            usersCountedAt = now;
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Users count failed, keeping count from {}: {}", usersCountedAt, e.getMessage());
+        }
+
+        String status;
+        try {
+            status = healthEndpoint.health().getStatus().getCode();
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Health check failed: {}", e.getMessage());
+            status = Status.DOWN.getCode();
+        }
+
+        Map<String, Object> info;
+        try {
+            info = infoSafe();
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Info refresh failed, keeping previous info: {}", e.getMessage());
+            info = previous.info();
+        }
+
+        snapshot = new Snapshot(status, users, info, now, usersCountedAt);
+    }
+
+    private long countUsers() {
+        if (approximateCount) {
+            try {
+                Long estimate = jdbcTemplate.queryForObject(RELTUPLES_SQL, Long.class);
+                // -1 - таблицу ещё не анализировали; маленькую дешевле посчитать точно
+                if (estimate != null && estimate >= exactCountBelow) {
+                    return estimate;
+                }
+            } catch (DataAccessException e) {
+                // pg_class есть только в Postgres (в тестах H2)
+                log.debug("pg_class estimate unavailable, using COUNT(*): {}", e.getMessage());
+            }
+        }
+        return userRepository.count();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> infoSafe() {
+        Object i = infoEndpoint.info();
+        if (i instanceof Map<?, ?> m) {
+            return (Map<String, Object>) m;
+        }
+        return Map.of();
+    }
+
+    /**
+     * status - код health, usersTotal - null до первого удачного подсчёта.
+     * refreshedAt - время последнего обновления, usersCountedAt - последнего удачного COUNT.
+     */
+    public record Snapshot(String status, Long usersTotal, Map<String, Object> info,
+                           Instant refreshedAt, Instant usersCountedAt) {
+        static final Snapshot UNKNOWN = new Snapshot("UNKNOWN", null, Map.of(), null, null);
+    }
+}
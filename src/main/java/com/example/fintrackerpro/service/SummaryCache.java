@@ -0,0 +1,110 @@
+package com.example.fintrackerpro.service;
+
+import com.example.fintrackerpro.dto.CategoryBreakdownDto;
+import com.example.fintrackerpro.dto.MonthlySummaryDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Кэш сводок по пользователю и месяцу. Инвалидация - после коммита транзакции,
+ * которая меняла доходы/расходы (см. MonthlyRollupService).
+ */
+@Component
+public class SummaryCache {
+
+    private static final Tags TAGS = Tags.of("service", "fintracker-api", "env", "prod");
+
+    private final Cache<MonthKey, MonthlySummaryDto> monthly;
+    private final Cache<Long, List<String>> usedMonths;
+    private final Cache<Long, List<MonthlySummaryDto>> allMonthly;
+    private final Cache<MonthKey, CategoryBreakdownDto> categories;
+
+    public SummaryCache(MeterRegistry registry,
+                        @Value("${app.cache.summary.max-size:10000}") long maxSize,
+                        @Value("${app.cache.summary.ttl-seconds:600}") long ttlSeconds) {
+        Duration ttl = Duration.ofSeconds(ttlSeconds);
+        this.monthly = build(maxSize, ttl);
+        this.usedMonths = build(maxSize, ttl);
+        this.allMonthly = build(maxSize, ttl);
+        this.categories = build(maxSize, ttl);
+
+        CaffeineCacheMetrics.monitor(registry, monthly, "summary.monthly", TAGS);
+        CaffeineCacheMetrics.monitor(registry, usedMonths, "summary.used_months", TAGS);
+        CaffeineCacheMetrics.monitor(registry, allMonthly, "summary.all_monthly", TAGS);
+        CaffeineCacheMetrics.monitor(registry, categories, "summary.categories", TAGS);
+    }
+
+    public MonthlySummaryDto monthly(Long userId, YearMonth month, Supplier<MonthlySummaryDto> loader) {
+        return monthly.get(new MonthKey(userId, month), k -> loader.get());
+    }
+
+    public List<String> usedMonths(Long userId, Supplier<List<String>> loader) {
+        return usedMonths.get(userId, k -> List.copyOf(loader.get()));
+    }
+
+    public List<MonthlySummaryDto> allMonthly(Long userId, Supplier<List<MonthlySummaryDto>> loader) {
+        return allMonthly.get(userId, k -> List.copyOf(loader.get()));
+    }
+
+    public CategoryBreakdownDto categories(Long userId, YearMonth month, Supplier<CategoryBreakdownDto> loader) {
+        return categories.get(new MonthKey(userId, month), k -> loader.get());
+    }
+
+    /** Сбросить сводки затронутых месяцев пользователя (и списки по всем месяцам). */
+    public void evictMonths(Long userId, Collection<YearMonth> months) {
+        afterCommit(() -> {
+            for (YearMonth month : months) {
+                monthly.invalidate(new MonthKey(userId, month));
+                categories.invalidate(new MonthKey(userId, month));
+            }
+            usedMonths.invalidate(userId);
+            allMonthly.invalidate(userId);
+        });
+    }
+
+    /** Сбросить все сводки пользователя. */
+    public void evictUser(Long userId) {
+        afterCommit(() -> {
+            monthly.asMap().keySet().removeIf(key -> key.userId().equals(userId));
+            categories.asMap().keySet().removeIf(key -> key.userId().equals(userId));
+            usedMonths.invalidate(userId);
+            allMonthly.invalidate(userId);
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static <K, V> Cache<K, V> build(long maxSize, Duration ttl) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    private record MonthKey(Long userId, YearMonth month) {}
+}
@@ -1,111 +1,254 @@
 package com.example.fintrackerpro.service;
 
+import com.example.fintrackerpro.dto.CategoryBreakdownDto;
+import com.example.fintrackerpro.dto.CategoryMatrixDto;
 import com.example.fintrackerpro.dto.MonthlySummaryDto;
+import com.example.fintrackerpro.entity.category.CategoryType;
+import com.example.fintrackerpro.exception.ResourceNotFoundException;
+import com.example.fintrackerpro.repository.CategoryTotalsRow;
 import com.example.fintrackerpro.repository.ExpenseRepository;
 import com.example.fintrackerpro.repository.IncomeRepository;
+import com.example.fintrackerpro.repository.MonthCategoryTotalRow;
+import com.example.fintrackerpro.repository.MonthTotals;
+import com.example.fintrackerpro.repository.MonthlyRollupRepository;
+import com.example.fintrackerpro.repository.MonthlyTotalsRow;
+import com.example.fintrackerpro.repository.SummaryRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Transactional(readOnly = true)
 public class SummaryService {
 
     private final IncomeRepository incomeRepository;
     private final ExpenseRepository expenseRepository;
-    private final UserService userService;
+    private final SummaryRepository summaryRepository;
+    private final MonthlyRollupRepository rollupRepository;
+    private final SummaryCache summaryCache;
+
+    static final int MAX_MATRIX_MONTHS = 120;
+    private static final int MATRIX_SCALE = 2;
 
 
     //  Получить полный summary за месяц
 
     public MonthlySummaryDto getMonthlySummary(Long userId, int year, int month) {
 
-        // Проверяем что пользователь существует
-        userService.getUserEntityById(userId);
-
-        BigDecimal totalIncome = incomeRepository.getTotalIncomeByUserAndMonth(userId, year, month);
-        BigDecimal totalExpenses = expenseRepository.getTotalExpenseByUserAndMonth(userId, year, month);
-
-        if (totalIncome == null) totalIncome = BigDecimal.ZERO;
-        if (totalExpenses == null) totalExpenses = BigDecimal.ZERO;
+        MonthRange range = MonthRange.of(year, month);
 
-        BigDecimal savings = totalIncome.subtract(totalExpenses);
+        return summaryCache.monthly(userId, YearMonth.of(year, month),
+                () -> loadMonthlySummary(userId, year, month, range));
+    }
 
-        // Рассчитываем норму сбережений (в %)
-        BigDecimal savingsRate = BigDecimal.ZERO;
-        if (totalIncome.compareTo(BigDecimal.ZERO) > 0) {
-            savingsRate = savings
-                    .divide(totalIncome, 4, RoundingMode.HALF_UP)
-                    .multiply(BigDecimal.valueOf(100))
-                    .setScale(2, RoundingMode.HALF_UP);
+    private MonthlySummaryDto loadMonthlySummary(Long userId, int year, int month, MonthRange range) {
+        // Существование пользователя и обе суммы - одним запросом
+        MonthTotals totals = summaryRepository.getMonthTotals(userId, range.start(), range.end());
+        if (totals == null || !Boolean.TRUE.equals(totals.getUserExists())) {
+            log.error("User not found with id={}", userId);
+            throw new ResourceNotFoundException("User not found with id: " + userId);
         }
 
+        MonthlySummaryDto summary = toSummary(year, month, totals.getTotalIncome(), totals.getTotalExpenses(),
+                totals.getIncomeCount(), totals.getExpenseCount());
+
         log.info("📊 Monthly summary for user {} {}/{}: income={}, expense={}, savings={}, rate={}%",
-                userId, year, month, totalIncome, totalExpenses, savings, savingsRate);
+                userId, year, month, summary.getTotalIncome(), summary.getTotalExpenses(),
+                summary.getSavings(), summary.getSavingsRatePercent());
 
-        return MonthlySummaryDto.builder()
-                .year(year)
-                .month(month)
-                .totalIncome(totalIncome)
-                .totalExpenses(totalExpenses)
-                .savings(savings)
-                .savingsRatePercent(savingsRate)
-                .balance(savings) // Balance = savings
-                .build();
+        return summary;
     }
 
     public BigDecimal getTotalIncome(Long userId, int year, int month) {
-        BigDecimal total = incomeRepository.getTotalIncomeByUserAndMonth(userId, year, month);
+        MonthRange range = MonthRange.of(year, month);
+        BigDecimal total = incomeRepository.getTotalIncomeByUserAndPeriod(userId, range.start(), range.end());
         return total != null ? total : BigDecimal.ZERO;
     }
 
     public BigDecimal getTotalExpense(Long userId, int year, int month) {
-        BigDecimal total = expenseRepository.getTotalExpenseByUserAndMonth(userId, year, month);
+        MonthRange range = MonthRange.of(year, month);
+        BigDecimal total = expenseRepository.getTotalExpenseByUserAndPeriod(userId, range.start(), range.end());
         return total != null ? total : BigDecimal.ZERO;
     }
 
     public List<MonthlySummaryDto> getAllMonthlySummaries(Long userId) {
-        List<String> months = getUsedMonths(userId);
+        return summaryCache.allMonthly(userId, () -> loadAllMonthlySummaries(userId));
+    }
+
+    private List<MonthlySummaryDto> loadAllMonthlySummaries(Long userId) {
+        // Один GROUP BY по месяцам вместо getMonthlySummary на каждый месяц
         List<MonthlySummaryDto> result = new ArrayList<>();
+        for (MonthlyTotalsRow row : summaryRepository.findMonthlyTotalsByUser(userId)) {
+            result.add(toSummary(row.getYear(), row.getMonth(), row.getTotalIncome(), row.getTotalExpenses(),
+                    row.getIncomeCount(), row.getExpenseCount()));
+        }
+        return result;
+    }
 
-        for (String monthStr : months) {
-            String[] parts = monthStr.split("-");
-            int year = Integer.parseInt(parts[0]);
-            int month = Integer.parseInt(parts[1]);
+    public List<String> getUsedMonths(Long userId) {
+        return summaryCache.usedMonths(userId, () -> loadUsedMonths(userId));
+    }
 
-            MonthlySummaryDto summary = getMonthlySummary(userId, year, month);
-            result.add(summary);
+    private List<String> loadUsedMonths(Long userId) {
+        // Новые месяцы сначала, "2026-02"
+        List<String> months = new ArrayList<>();
+        for (LocalDate yearMonth : rollupRepository.findUsedMonthsByUser(userId)) {
+            months.add(String.format("%04d-%02d", yearMonth.getYear(), yearMonth.getMonthValue()));
         }
+        return months;
+    }
 
-        return result;
+    //  Разбивка по категориям за месяц - из monthly_rollup, кэшируется вместе со сводкой месяца
+
+    public CategoryBreakdownDto getMonthlyCategoryBreakdown(Long userId, int year, int month) {
+        MonthRange.of(year, month);
+        YearMonth yearMonth = YearMonth.of(year, month);
+        return summaryCache.categories(userId, yearMonth, () -> toBreakdown(
+                yearMonth.atDay(1),
+                yearMonth.atEndOfMonth(),
+                summaryRepository.findCategoryTotalsByMonths(userId, yearMonth.atDay(1), yearMonth.plusMonths(1).atDay(1))));
     }
 
-    public List<String> getUsedMonths(Long userId) {
-        // TreeSet с обратным порядком — новые месяцы сначала
-        Set<String> months = new TreeSet<>(Collections.reverseOrder());
-
-        // Месяцы из доходов
-        List<Object[]> incomeMonths = incomeRepository.findUsedMonthsByUser(userId);
-        for (Object[] row : incomeMonths) {
-            int year = ((Number) row[0]).intValue();
-            int month = ((Number) row[1]).intValue();
-            months.add(String.format("%04d-%02d", year, month)); // "2026-02"
+    //  Разбивка по категориям за произвольный период [from, to] включительно
+
+    public CategoryBreakdownDto getCategoryBreakdown(Long userId, LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Дата from позже даты to");
         }
+        List<CategoryTotalsRow> rows = summaryRepository.findCategoryTotalsByPeriod(
+                userId, from.atStartOfDay(), to.plusDays(1).atStartOfDay());
+        return toBreakdown(from, to, rows);
+    }
 
-        // Месяцы из расходов
-        List<Object[]> expenseMonths = expenseRepository.findUsedMonthsByUser(userId);
-        for (Object[] row : expenseMonths) {
-            int year = ((Number) row[0]).intValue();
-            int month = ((Number) row[1]).intValue();
-            months.add(String.format("%04d-%02d", year, month));
+    //  Матрица категория x месяц за [from, to] (месяцы включительно) для графиков трендов
+
+    public CategoryMatrixDto getCategoryMatrix(Long userId, CategoryType type, YearMonth from, YearMonth to) {
+        if (to.isBefore(from)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Месяц from позже месяца to");
+        }
+        int monthCount = (int) from.until(to, ChronoUnit.MONTHS) + 1;
+        if (monthCount > MAX_MATRIX_MONTHS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Период не больше " + MAX_MATRIX_MONTHS + " месяцев");
         }
 
-        return new ArrayList<>(months);
+        List<MonthCategoryTotalRow> cells = summaryRepository.findMonthCategoryTotals(
+                userId, type.name(), from.atDay(1), to.plusMonths(1).atDay(1));
+
+        // Порядок категорий - по сумме за период, крупные сверху
+        Map<String, BigDecimal> categoryTotals = new HashMap<>();
+        for (MonthCategoryTotalRow cell : cells) {
+            categoryTotals.merge(cell.getCategory(), cell.getTotal(), BigDecimal::add);
+        }
+        List<String> categories = new ArrayList<>(categoryTotals.keySet());
+        categories.sort(Comparator.<String, BigDecimal>comparing(categoryTotals::get, Comparator.reverseOrder())
+                .thenComparing(Comparator.naturalOrder()));
+        Map<String, Integer> categoryIndex = new HashMap<>();
+        for (int i = 0; i < categories.size(); i++) {
+            categoryIndex.put(categories.get(i), i);
+        }
+
+        long[] values = new long[categories.size() * monthCount];
+        for (MonthCategoryTotalRow cell : cells) {
+            int m = (int) from.until(YearMonth.of(cell.getYear(), cell.getMonth()), ChronoUnit.MONTHS);
+            values[categoryIndex.get(cell.getCategory()) * monthCount + m] =
+                    cell.getTotal().movePointRight(MATRIX_SCALE).longValueExact();
+        }
+
+        List<String> months = new ArrayList<>(monthCount);
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            months.add(month.toString());
+        }
+
+        return CategoryMatrixDto.builder()
+                .type(type)
+                .months(months)
+                .categories(categories)
+                .scale(MATRIX_SCALE)
+                .values(values)
+                .build();
     }
-}
 
+    private CategoryBreakdownDto toBreakdown(LocalDate from, LocalDate to, List<CategoryTotalsRow> rows) {
+        List<CategoryTotalsRow> incomeRows = new ArrayList<>();
+        List<CategoryTotalsRow> expenseRows = new ArrayList<>();
+        BigDecimal totalIncome = BigDecimal.ZERO;
+        BigDecimal totalExpenses = BigDecimal.ZERO;
+
+        // Строки уже отсортированы по сумме (DESC)
+        for (CategoryTotalsRow row : rows) {
+            if ("INCOME".equals(row.getType())) {
+                incomeRows.add(row);
+                totalIncome = totalIncome.add(row.getTotal());
+            } else {
+                expenseRows.add(row);
+                totalExpenses = totalExpenses.add(row.getTotal());
+            }
+        }
+
+        return CategoryBreakdownDto.builder()
+                .from(from)
+                .to(to)
+                .totalIncome(totalIncome)
+                .totalExpenses(totalExpenses)
+                .incomes(toShares(incomeRows, totalIncome))
+                .expenses(toShares(expenseRows, totalExpenses))
+                .build();
+    }
+
+    private List<CategoryBreakdownDto.CategoryShare> toShares(List<CategoryTotalsRow> rows, BigDecimal total) {
+        List<CategoryBreakdownDto.CategoryShare> shares = new ArrayList<>(rows.size());
+        for (CategoryTotalsRow row : rows) {
+            BigDecimal share = total.signum() > 0
+                    ? row.getTotal().multiply(BigDecimal.valueOf(100)).divide(total, 2, RoundingMode.HALF_UP)
+                    : BigDecimal.ZERO;
+            shares.add(CategoryBreakdownDto.CategoryShare.builder()
+                    .category(row.getCategory())
+                    .total(row.getTotal())
+                    .count(row.getCount() != null ? row.getCount() : 0)
+                    .sharePercent(share)
+                    .build());
+        }
+        return shares;
+    }
+
+    static MonthlySummaryDto toSummary(int year, int month, BigDecimal totalIncome, BigDecimal totalExpenses,
+                                       Long incomeCount, Long expenseCount) {
+        if (totalIncome == null) totalIncome = BigDecimal.ZERO;
+        if (totalExpenses == null) totalExpenses = BigDecimal.ZERO;
+
+        BigDecimal savings = totalIncome.subtract(totalExpenses);
 
+        // Рассчитываем норму сбережений (в %)
+        BigDecimal savingsRate = BigDecimal.ZERO;
+        if (totalIncome.compareTo(BigDecimal.ZERO) > 0) {
+            savingsRate = savings
+                    .divide(totalIncome, 4, RoundingMode.HALF_UP)
+                    .multiply(BigDecimal.valueOf(100))
+                    .setScale(2, RoundingMode.HALF_UP);
+        }
+
+        return MonthlySummaryDto.builder()
+                .year(year)
+                .month(month)
+                .totalIncome(totalIncome)
+                .totalExpenses(totalExpenses)
+                .savings(savings)
+                .savingsRatePercent(savingsRate)
+                .balance(savings) // Balance = savings
+                .incomeCount(incomeCount != null ? incomeCount : 0)
+                .expenseCount(expenseCount != null ? expenseCount : 0)
+                .build();
+    }
+}
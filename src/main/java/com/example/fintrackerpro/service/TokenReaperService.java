@@ -0,0 +1,164 @@
+package com.example.fintrackerpro.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Чистит refresh_tokens и password_reset_tokens: токен выдаётся на каждый вход/регистрацию,
+ * а просроченные и отозванные строки иначе копятся вечно. Удаляет пачками по batch-size,
+ * каждая пачка - отдельная транзакция (auto-commit), между пачками пауза, чтобы не держать
+ * блокировки и не забивать WAL. Кандидаты ищутся по индексам из V16.
+ * Гейдж размера таблиц - оценка pg_class.reltuples, а не COUNT(*) по всей таблице на каждом запуске.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(prefix = "app.token-reaper", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TokenReaperService {
+
+    static final List<String> TABLES = List.of("refresh_tokens", "password_reset_tokens");
+
+    /** Что удаляем: просроченные по expires_at (параметр - текущее время) и уже отработавшие. */
+    static final List<ReapQuery> QUERIES = List.of(
+            new ReapQuery("refresh_tokens", true,
+                    "DELETE FROM refresh_tokens WHERE id IN " +
+                            "(SELECT id FROM refresh_tokens WHERE expires_at < ? LIMIT ?)"),
+            new ReapQuery("refresh_tokens", false,
+                    "DELETE FROM refresh_tokens WHERE id IN " +
+                            "(SELECT id FROM refresh_tokens WHERE revoked_at IS NOT NULL LIMIT ?)"),
+            new ReapQuery("password_reset_tokens", true,
+                    "DELETE FROM password_reset_tokens WHERE id IN " +
+                            "(SELECT id FROM password_reset_tokens WHERE expires_at < ? LIMIT ?)"),
+            new ReapQuery("password_reset_tokens", false,
+                    "DELETE FROM password_reset_tokens WHERE id IN " +
+                            "(SELECT id FROM password_reset_tokens WHERE used_at IS NOT NULL LIMIT ?)")
+    );
+
+    static final String ROWS_ESTIMATE_SQL = "SELECT reltuples::bigint FROM pg_class WHERE oid = ?::regclass";
+
+    private static final Tags TAGS = Tags.of("service", "fintracker-api", "env", "prod");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private final long pauseMs;
+    private final int maxBatches;
+    private final Clock clock;
+
+    private final Map<String, AtomicLong> rows = new HashMap<>();
+    private final Map<String, AtomicLong> lastReaped = new HashMap<>();
+    private final Map<String, Counter> reapedTotal = new HashMap<>();
+
+    @Autowired
+    public TokenReaperService(JdbcTemplate jdbcTemplate,
+                              MeterRegistry registry,
+                              @Value("${app.token-reaper.batch-size:5000}") int batchSize,
+                              @Value("${app.token-reaper.pause-ms:200}") long pauseMs,
+                              @Value("${app.token-reaper.max-batches:200}") int maxBatches) {
+        this(jdbcTemplate, registry, batchSize, pauseMs, maxBatches, Clock.systemDefaultZone());
+    }
+
+    TokenReaperService(JdbcTemplate jdbcTemplate, MeterRegistry registry,
+                       int batchSize, long pauseMs, int maxBatches, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+        this.pauseMs = pauseMs;
+        this.maxBatches = maxBatches;
+        this.clock = clock;
+
+        for (String table : TABLES) {
+            Tags tags = TAGS.and("table", table);
+            rows.put(table, registry.gauge("fintracker_auth_tokens_rows", tags, new AtomicLong()));
+            lastReaped.put(table, registry.gauge("fintracker_auth_tokens_reaped_last", tags, new AtomicLong()));
+            reapedTotal.put(table, registry.counter("fintracker_auth_tokens_reaped_total", tags));
+        }
+    }
+
+    @Scheduled(cron = "${app.token-reaper.cron:0 */15 * * * *}")
+    public void reap() {
+        Timestamp now = Timestamp.from(clock.instant());
+        Map<String, Long> reaped = new HashMap<>();
+        try {
+            for (ReapQuery query : QUERIES) {
+                reaped.merge(query.table(), reapInBatches(query, now), Long::sum);
+            }
+        } catch (DataAccessException e) {
+            // Следующий запуск доберёт остаток: удаление идемпотентно
+            log.error("❌ Token reaper failed: {}", e.getMessage());
+            return;
+        }
+
+        for (String table : TABLES) {
+            long count = reaped.getOrDefault(table, 0L);
+            lastReaped.get(table).set(count);
+            reapedTotal.get(table).increment(count);
+        }
+        updateRowEstimates();
+        log.info("🧹 Auth tokens reaped: refresh_tokens={}, password_reset_tokens={}",
+                reaped.getOrDefault("refresh_tokens", 0L), reaped.getOrDefault("password_reset_tokens", 0L));
+    }
+
+    private void updateRowEstimates() {
+        for (String table : TABLES) {
+            try {
+                Long estimate = jdbcTemplate.queryForObject(ROWS_ESTIMATE_SQL, Long.class, table);
+                // -1 - таблицу ещё не анализировали, оставляем прошлое значение
+                if (estimate != null && estimate >= 0) {
+                    rows.get(table).set(estimate);
+                }
+            } catch (DataAccessException e) {
+                // pg_class есть только в Postgres (в тестах H2)
+                log.debug("pg_class estimate unavailable for {}: {}", table, e.getMessage());
+            }
+        }
+    }
+
+    private long reapInBatches(ReapQuery query, Timestamp now) {
+        long total = 0;
+        for (int batch = 1; batch <= maxBatches; batch++) {
+            int deleted = query.byExpiry()
+                    ? jdbcTemplate.update(query.sql(), now, batchSize)
+                    : jdbcTemplate.update(query.sql(), batchSize);
+            total += deleted;
+            if (deleted < batchSize) {
+                return total;
+            }
+            if (!pause()) {
+                return total;
+            }
+        }
+        // Остаток - в следующий запуск, чтобы один запуск не занимал планировщик надолго
+        log.warn("⚠️ Token reaper hit max-batches for {}: {} row(s) this run", query.table(), total);
+        return total;
+    }
+
+    private boolean pause() {
+        if (pauseMs <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    record ReapQuery(String table, boolean byExpiry, String sql) {}
+}
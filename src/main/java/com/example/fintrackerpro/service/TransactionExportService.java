@@ -0,0 +1,110 @@
+package com.example.fintrackerpro.service;
+
+import com.example.fintrackerpro.entity.category.CategoryType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Экспорт всей истории операций пользователя. Строки читаются курсором
+ * (fetchSize внутри транзакции - иначе драйвер Postgres загрузит весь ResultSet)
+ * и сразу пишутся в поток, поэтому память не зависит от объёма истории.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionExportService {
+
+    static final int FETCH_SIZE = 1000;
+
+    private static final String SELECT_EXPENSES =
+            "SELECT id, date, amount, category, description FROM expenses WHERE user_id = ? ORDER BY date, id";
+    private static final String SELECT_INCOMES =
+            "SELECT id, date, amount, category, source FROM incomes WHERE user_id = ? ORDER BY date, id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final UserService userService;
+    private final ObjectMapper objectMapper;
+
+    public static List<CategoryType> typesOf(String type) {
+        return switch (type.toLowerCase()) {
+            case "income" -> List.of(CategoryType.INCOME);
+            case "expenses" -> List.of(CategoryType.EXPENSE);
+            case "all" -> List.of(CategoryType.EXPENSE, CategoryType.INCOME);
+            default -> throw new IllegalArgumentException("Unknown type: " + type);
+        };
+    }
+
+    /** Проверка до начала стриминга: после первого байта статус ответа уже не поменять. */
+    public void checkUser(Long userId) {
+        userService.requireExistingUser(userId);
+    }
+
+    public void export(Long userId, List<CategoryType> types, TransactionFileFormat format, OutputStream out)
+            throws IOException {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(true);
+
+        long[] rows = {0};
+        try (TransactionExportWriter writer = TransactionExportWriter.create(format, out, objectMapper)) {
+            tx.executeWithoutResult(status -> {
+                for (CategoryType type : types) {
+                    rows[0] += stream(userId, type, writer);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        log.info("📤 Export finished: userId={}, types={}, format={}, rows={}", userId, types, format, rows[0]);
+    }
+
+    private long stream(Long userId, CategoryType type, TransactionExportWriter writer) {
+        boolean income = type == CategoryType.INCOME;
+        long[] count = {0};
+
+        RowCallbackHandler handler = rs -> {
+            try {
+                writer.write(toRow(rs, type, income));
+                count[0]++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(income ? SELECT_INCOMES : SELECT_EXPENSES,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(FETCH_SIZE);
+            ps.setLong(1, userId);
+            return ps;
+        }, handler);
+        return count[0];
+    }
+
+    private static TransactionExportWriter.Row toRow(ResultSet rs, CategoryType type, boolean income)
+            throws SQLException {
+        String text = rs.getString(5);
+        return new TransactionExportWriter.Row(
+                type,
+                rs.getLong(1),
+                rs.getTimestamp(2).toLocalDateTime().toLocalDate(),
+                rs.getBigDecimal(3),
+                rs.getString(4),
+                income ? null : text,
+                income ? text : null);
+    }
+}
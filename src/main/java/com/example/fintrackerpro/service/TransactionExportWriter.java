@@ -0,0 +1,122 @@
+package com.example.fintrackerpro.service;
+
+import com.example.fintrackerpro.entity.category.CategoryType;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * Пишет строки экспорта по одной прямо в выходной поток - ничего не копит в памяти.
+ * Колонки совпадают с форматом импорта, так что выгрузку можно загрузить обратно.
+ */
+public abstract class TransactionExportWriter implements Closeable {
+
+    public record Row(CategoryType type, long id, LocalDate date, BigDecimal amount,
+                      String category, String description, String source) {}
+
+    public abstract void write(Row row) throws IOException;
+
+    public static TransactionExportWriter create(TransactionFileFormat format, OutputStream out,
+                                                 ObjectMapper objectMapper) throws IOException {
+        return format == TransactionFileFormat.CSV
+                ? new Csv(out)
+                : new JsonLines(out, objectMapper);
+    }
+
+    private static final class Csv extends TransactionExportWriter {
+
+        private final Writer writer;
+
+        private Csv(OutputStream out) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            writer.write("type,id,date,amount,category,description,source\n");
+        }
+
+        @Override
+        public void write(Row row) throws IOException {
+            writer.write(row.type().name());
+            writer.write(',');
+            writer.write(Long.toString(row.id()));
+            writer.write(',');
+            writer.write(row.date().toString());
+            writer.write(',');
+            writer.write(row.amount().toPlainString());
+            writer.write(',');
+            writeField(row.category());
+            writer.write(',');
+            writeField(row.description());
+            writer.write(',');
+            writeField(row.source());
+            writer.write('\n');
+        }
+
+        private void writeField(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            boolean quote = value.indexOf(',') >= 0 || value.indexOf(';') >= 0 || value.indexOf('"') >= 0
+                    || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+    }
+
+    private static final class JsonLines extends TransactionExportWriter {
+
+        private final JsonGenerator generator;
+        private boolean empty = true;
+
+        private JsonLines(OutputStream out, ObjectMapper objectMapper) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out);
+            // Корневые объекты разделяются переводом строки - это и есть JSON Lines
+            generator.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        @Override
+        public void write(Row row) throws IOException {
+            generator.writeStartObject();
+            generator.writeStringField("type", row.type().name());
+            generator.writeNumberField("id", row.id());
+            generator.writeStringField("date", row.date().toString());
+            generator.writeNumberField("amount", row.amount());
+            generator.writeStringField("category", row.category());
+            if (row.description() != null) {
+                generator.writeStringField("description", row.description());
+            }
+            if (row.source() != null) {
+                generator.writeStringField("source", row.source());
+            }
+            generator.writeEndObject();
+            empty = false;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!empty) {
+                generator.writeRaw('\n');
+            }
+            generator.close();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.fintrackerpro.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Locale;
+
+/**
+ * Форматы файлов для импорта/экспорта операций.
+ */
+public enum TransactionFileFormat {
+    CSV("text/csv", "csv"),
+    JSONL("application/x-ndjson", "jsonl");
+
+    private final String contentType;
+    private final String extension;
+
+    TransactionFileFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public static TransactionFileFormat fromContentType(String contentType) {
+        String type = contentType == null ? "" : contentType.toLowerCase(Locale.ROOT);
+        if (type.startsWith("text/csv")) {
+            return CSV;
+        }
+        if (type.startsWith("application/x-ndjson") || type.startsWith("application/jsonl")) {
+            return JSONL;
+        }
+        throw new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE,
+                "Поддерживаются text/csv и application/x-ndjson");
+    }
+
+    public static TransactionFileFormat fromParam(String format) {
+        return switch (format.toLowerCase(Locale.ROOT)) {
+            case "csv" -> CSV;
+            case "jsonl", "ndjson" -> JSONL;
+            default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown format: " + format);
+        };
+    }
+}
@@ -0,0 +1,295 @@
+package com.example.fintrackerpro.service;
+
+import com.example.fintrackerpro.dto.ImportReport;
+import com.example.fintrackerpro.entity.category.CategoryType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Массовый импорт доходов/расходов из CSV или JSON Lines.
+ * Тело читается построчно, валидные строки пишутся пачками через JDBC batch,
+ * поэтому память не зависит от размера файла.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionImportService {
+
+    static final int BATCH_SIZE = 1000;
+    static final int MAX_REPORTED_ERRORS = 100;
+
+    private static final int MAX_CATEGORY_LENGTH = 50;
+    private static final int MAX_DESCRIPTION_LENGTH = 500;
+    private static final int MAX_SOURCE_LENGTH = 100;
+    // NUMERIC(15, 2)
+    private static final int MAX_INTEGER_DIGITS = 13;
+
+    private static final String INSERT_EXPENSE =
+            "INSERT INTO expenses (user_id, amount, category, category_id, description, date, created_at) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_INCOME =
+            "INSERT INTO incomes (user_id, amount, category, category_id, source, date, created_at) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserService userService;
+    private final MonthlyRollupService rollupService;
+    private final CategoryService categoryService;
+    private final ObjectMapper objectMapper;
+
+    @Transactional
+    public ImportReport importTransactions(Long userId, CategoryType type, TransactionFileFormat format,
+                                           InputStream body) throws IOException {
+        userService.requireExistingUser(userId);
+
+        String textColumn = type == CategoryType.INCOME ? "source" : "description";
+        // Каталог категорий один раз на импорт: category_id для каждой строки - поиск в HashMap
+        Map<String, Long> categoryIds = categoryService.categoryIdsByName(userId, type);
+        LocalDateTime createdAt = LocalDateTime.now();
+
+        List<Row> buffer = new ArrayList<>(BATCH_SIZE);
+        MonthlyRollupService.Batch rollup = new MonthlyRollupService.Batch();
+        List<ImportReport.RowError> errors = new ArrayList<>();
+        long imported = 0;
+        long failed = 0;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            CsvHeader header = null;
+            String line;
+            long lineNo = 0;
+
+            while ((line = reader.readLine()) != null) {
+                lineNo++;
+                if (lineNo == 1 && line.startsWith("\uFEFF")) {
+                    line = line.substring(1);
+                }
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == TransactionFileFormat.CSV && header == null) {
+                    header = CsvHeader.parse(line);
+                    continue;
+                }
+
+                try {
+                    Map<String, String> fields = format == TransactionFileFormat.CSV
+                            ? header.fields(line)
+                            : jsonFields(line);
+                    Row row = toRow(fields, type, textColumn);
+                    buffer.add(row);
+                    rollup.add(row.date(), row.category(), row.amount());
+                } catch (IllegalArgumentException e) {
+                    failed++;
+                    if (errors.size() < MAX_REPORTED_ERRORS) {
+                        errors.add(new ImportReport.RowError(lineNo, e.getMessage()));
+                    }
+                    continue;
+                }
+
+                if (buffer.size() == BATCH_SIZE) {
+                    imported += flush(userId, type, buffer, categoryIds, createdAt);
+                }
+            }
+        }
+        imported += flush(userId, type, buffer, categoryIds, createdAt);
+        rollupService.addedAll(userId, type, rollup);
+
+        log.info("📥 Import finished: userId={}, type={}, imported={}, failed={}", userId, type, imported, failed);
+
+        return ImportReport.builder()
+                .type(type)
+                .imported(imported)
+                .failed(failed)
+                .errors(errors)
+                .errorsTruncated(failed > errors.size())
+                .build();
+    }
+
+    private int flush(Long userId, CategoryType type, List<Row> buffer, Map<String, Long> categoryIds,
+                      LocalDateTime createdAt) {
+        if (buffer.isEmpty()) {
+            return 0;
+        }
+        String sql = type == CategoryType.INCOME ? INSERT_INCOME : INSERT_EXPENSE;
+        jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Row row = buffer.get(i);
+                ps.setLong(1, userId);
+                ps.setBigDecimal(2, row.amount());
+                ps.setString(3, row.category());
+                ps.setObject(4, categoryIds.get(row.category().toLowerCase(Locale.ROOT)), Types.BIGINT);
+                ps.setString(5, row.text());
+                ps.setObject(6, row.date());
+                ps.setObject(7, createdAt);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return buffer.size();
+            }
+        });
+        int written = buffer.size();
+        buffer.clear();
+        return written;
+    }
+
+    private Map<String, String> jsonFields(String line) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Некорректный JSON");
+        }
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("Ожидается JSON-объект");
+        }
+        Map<String, String> fields = new HashMap<>();
+        node.fields().forEachRemaining(e -> {
+            if (!e.getValue().isNull()) {
+                fields.put(e.getKey().toLowerCase(Locale.ROOT), e.getValue().asText());
+            }
+        });
+        return fields;
+    }
+
+    private static Row toRow(Map<String, String> fields, CategoryType type, String textColumn) {
+        LocalDate date = parseDate(fields.get("date"));
+        BigDecimal amount = parseAmount(fields.get("amount"));
+        String category = required(fields, "category", MAX_CATEGORY_LENGTH);
+        String text = required(fields, textColumn,
+                type == CategoryType.INCOME ? MAX_SOURCE_LENGTH : MAX_DESCRIPTION_LENGTH);
+        return new Row(date.atTime(LocalTime.MIDNIGHT), amount, category, text);
+    }
+
+    private static LocalDate parseDate(String raw) {
+        if (raw == null || raw.isBlank()) {
+            throw new IllegalArgumentException("date: обязательное поле");
+        }
+        try {
+            return LocalDate.parse(raw.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("date: ожидается формат yyyy-MM-dd");
+        }
+    }
+
+    private static BigDecimal parseAmount(String raw) {
+        if (raw == null || raw.isBlank()) {
+            throw new IllegalArgumentException("amount: обязательное поле");
+        }
+        BigDecimal amount;
+        try {
+            amount = new BigDecimal(raw.trim().replace(" ", "").replace(',', '.'));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("amount: не число");
+        }
+        if (amount.signum() <= 0) {
+            throw new IllegalArgumentException("amount: должно быть больше 0");
+        }
+        if (amount.stripTrailingZeros().scale() > 2) {
+            throw new IllegalArgumentException("amount: не больше 2 знаков после запятой");
+        }
+        if (amount.precision() - amount.scale() > MAX_INTEGER_DIGITS) {
+            throw new IllegalArgumentException("amount: слишком большое значение");
+        }
+        return amount;
+    }
+
+    private static String required(Map<String, String> fields, String name, int maxLength) {
+        String value = fields.get(name);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException(name + ": обязательное поле");
+        }
+        value = value.trim();
+        if (value.length() > maxLength) {
+            throw new IllegalArgumentException(name + ": длиннее " + maxLength + " символов");
+        }
+        return value;
+    }
+
+    private record Row(LocalDateTime date, BigDecimal amount, String category, String text) {}
+
+    /**
+     * Заголовок CSV: имена колонок и разделитель (',' или ';', как в выгрузках банков).
+     * Поля в кавычках поддерживаются, переносы строк внутри поля - нет.
+     */
+    private record CsvHeader(List<String> columns, char delimiter) {
+
+        static CsvHeader parse(String line) {
+            char delimiter = line.indexOf(';') >= 0 && line.indexOf(',') < 0 ? ';' : ',';
+            List<String> columns = new ArrayList<>();
+            for (String column : split(line, delimiter)) {
+                columns.add(column.trim().toLowerCase(Locale.ROOT));
+            }
+            return new CsvHeader(columns, delimiter);
+        }
+
+        Map<String, String> fields(String line) {
+            List<String> values = split(line, delimiter);
+            if (values.size() > columns.size()) {
+                throw new IllegalArgumentException("Колонок больше, чем в заголовке");
+            }
+            Map<String, String> fields = new HashMap<>();
+            for (int i = 0; i < values.size(); i++) {
+                fields.put(columns.get(i), values.get(i));
+            }
+            return fields;
+        }
+
+        private static List<String> split(String line, char delimiter) {
+            List<String> values = new ArrayList<>();
+            StringBuilder current = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        current.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        current.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == delimiter) {
+                    values.add(current.toString());
+                    current.setLength(0);
+                } else {
+                    current.append(c);
+                }
+            }
+            if (quoted) {
+                throw new IllegalArgumentException("Незакрытая кавычка");
+            }
+            values.add(current.toString());
+            return values;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.fintrackerpro.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * id пользователей, существование которых уже проверено. Хранится только факт "жив",
+ * сами сущности не кэшируются. Удаление через UserService.deleteUser сбрасывает запись после коммита,
+ * TTL ограничивает устаревание, если пользователя удалили в обход этого инстанса.
+ */
+@Component
+public class UserExistenceCache {
+
+    private static final Tags TAGS = Tags.of("service", "fintracker-api", "env", "prod");
+
+    private final Cache<Long, Boolean> liveUsers;
+
+    public UserExistenceCache(MeterRegistry registry,
+                              @Value("${app.cache.users.max-size:10000}") long maxSize,
+                              @Value("${app.cache.users.ttl-seconds:300}") long ttlSeconds) {
+        this.liveUsers = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, liveUsers, "users.live", TAGS);
+    }
+
+    public boolean isKnownLive(Long userId) {
+        return liveUsers.getIfPresent(userId) != null;
+    }
+
+    public void markLive(Long userId) {
+        liveUsers.put(userId, Boolean.TRUE);
+    }
+
+    public void invalidate(Long userId) {
+        liveUsers.invalidate(userId);
+    }
+
+    /**
+     * Сброс после коммита удаления: до коммита параллельный existsById ещё видит строку
+     * и вернул бы пользователя в кэш на весь TTL.
+     */
+    public void invalidateAfterCommit(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            liveUsers.invalidate(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                liveUsers.invalidate(userId);
+            }
+        });
+    }
+}
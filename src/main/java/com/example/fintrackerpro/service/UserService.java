@@ -10,10 +10,12 @@ import com.example.fintrackerpro.repository.UserRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
@@ -31,6 +33,7 @@ public class UserService {
     private final PasswordEncoder passwordEncoder;
     private final MetricsService metricsService;
     private final CategoryService categoryService;
+    private final UserExistenceCache userExistenceCache;
 
     // РЕГИСТРАЦИЯ: firstName + lastName + email + password
     public User registerUser(UserRegistrationRequest request) {
@@ -66,15 +69,53 @@ public class UserService {
                 });
     }
 
+    /**
+     * Проверка, что пользователь существует, без загрузки сущности.
+     * userId приходит из проверенного JWT, поэтому после первого EXISTS ответ берётся из кэша.
+     */
+    public void requireExistingUser(Long userId) {
+        if (userExistenceCache.isKnownLive(userId)) {
+            return;
+        }
+        if (!userRepository.existsById(userId)) {
+            log.error("User not found with id={}", userId);
+            throw new ResourceNotFoundException("User not found with id: " + userId);
+        }
+        userExistenceCache.markLive(userId);
+    }
+
+    /**
+     * Ссылка на пользователя для записи expenses/incomes без SELECT users.
+     * Если пользователя нет, INSERT упадёт на FK - см. translateWriteFailure.
+     */
+    public User getUserReference(Long userId) {
+        return userRepository.getReferenceById(userId);
+    }
+
+    /**
+     * Нарушение FK на users при записи по ссылке = пользователь удалён, отдаём 404.
+     * Прочие FK (например, на categories) не означают, что пользователя нет, - возвращаются как есть.
+     */
+    public RuntimeException translateWriteFailure(Long userId, DataIntegrityViolationException e) {
+        if (!ForeignKeyViolations.violates(e, ForeignKeyViolations.USER_CONSTRAINTS)) {
+            return e;
+        }
+        userExistenceCache.invalidate(userId);
+        log.error("User not found with id={} (foreign key violation on write)", userId);
+        return new ResourceNotFoundException("User not found with id: " + userId);
+    }
+
     public UserDto getUserById(Long userId) {
         return toDto(getUserEntityById(userId));
     }
 
+    @Transactional
     public void deleteUser(Long userId) {
         if (!userRepository.existsById(userId)) {
             throw new UserFoundException("User not found " + userId);
         }
         userRepository.deleteById(userId);
+        userExistenceCache.invalidateAfterCommit(userId);
     }
 
     public List<UserDto> getAllUsers() {
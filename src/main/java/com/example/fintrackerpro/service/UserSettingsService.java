@@ -16,7 +16,10 @@ public class UserSettingsService {
 
     @Transactional(readOnly = true)
     public UserSettingsDto getSettings(Long userId) {
-        User user = userRepository.findById(userId).orElseThrow();
+        return toSettings(userRepository.findById(userId).orElseThrow());
+    }
+
+    public UserSettingsDto toSettings(User user) {
         UserSettingsDto dto = new UserSettingsDto();
         dto.setDisplayCurrency(user.getDisplayCurrency());
         dto.setHideAmounts(user.isHideAmounts());
@@ -0,0 +1,32 @@
+-- Помесячные итоги по категориям: сводки читают O(месяцев) строк вместо всех транзакций
+CREATE TABLE monthly_rollup
+(
+    user_id    BIGINT         NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    year_month DATE           NOT NULL,
+    type       VARCHAR(20)    NOT NULL,
+    category   VARCHAR(50)    NOT NULL,
+    total      NUMERIC(19, 2) NOT NULL DEFAULT 0,
+    count      BIGINT         NOT NULL DEFAULT 0,
+    CONSTRAINT pk_monthly_rollup PRIMARY KEY (user_id, year_month, type, category)
+);
+
+-- Бэкфилл из существующих транзакций
+INSERT INTO monthly_rollup (user_id, year_month, type, category, total, count)
+SELECT user_id,
+       CAST(date_trunc('month', date) AS DATE),
+       'INCOME',
+       COALESCE(category, ''),
+       SUM(amount),
+       COUNT(*)
+FROM incomes
+GROUP BY user_id, CAST(date_trunc('month', date) AS DATE), COALESCE(category, '');
+
+INSERT INTO monthly_rollup (user_id, year_month, type, category, total, count)
+SELECT user_id,
+       CAST(date_trunc('month', date) AS DATE),
+       'EXPENSE',
+       COALESCE(category, ''),
+       SUM(amount),
+       COUNT(*)
+FROM expenses
+GROUP BY user_id, CAST(date_trunc('month', date) AS DATE), COALESCE(category, '');
@@ -0,0 +1,7 @@
+-- Разбивка по категориям за произвольный период: WHERE user_id = ? AND date в диапазоне, GROUP BY category, SUM(amount).
+-- amount в INCLUDE - запрос отвечается index-only scan без чтения строк таблицы.
+CREATE INDEX IF NOT EXISTS idx_expenses_user_date_category
+    ON expenses (user_id, date, category) INCLUDE (amount);
+
+CREATE INDEX IF NOT EXISTS idx_incomes_user_date_category
+    ON incomes (user_id, date, category) INCLUDE (amount);
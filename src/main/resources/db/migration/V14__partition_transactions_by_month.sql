@@ -0,0 +1,178 @@
+-- Помесячное RANGE-партиционирование expenses и incomes по date.
+-- Запросы за месяц (date >= начало AND date < конец) отсекаются до одной партиции,
+-- vacuum и перестроение индексов работают с партициями, а не со всей таблицей.
+-- Миграция переписывает обе таблицы под эксклюзивной блокировкой - запускать в окно обслуживания.
+
+-- Вьюхи из V3 ссылаются на старые таблицы, пересоздаём их в конце
+DROP VIEW IF EXISTS user_financial_summary;
+DROP VIEW IF EXISTS user_income_summary;
+DROP VIEW IF EXISTS user_expense_summary;
+
+ALTER TABLE expenses RENAME TO expenses_legacy;
+ALTER TABLE incomes RENAME TO incomes_legacy;
+
+-- Последовательности остаются: id продолжают нумерацию
+ALTER SEQUENCE expenses_id_seq OWNED BY NONE;
+ALTER SEQUENCE incomes_id_seq OWNED BY NONE;
+
+-- PK партиционированной таблицы обязан содержать ключ партиционирования
+CREATE TABLE expenses
+(
+    id          BIGINT         NOT NULL DEFAULT nextval('expenses_id_seq'),
+    user_id     BIGINT         NOT NULL,
+    amount      NUMERIC(15, 2) NOT NULL,
+    category    VARCHAR(50)    NOT NULL,
+    description VARCHAR(500),
+    date        TIMESTAMPTZ    NOT NULL,
+    created_at  TIMESTAMPTZ    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT pk_expenses PRIMARY KEY (id, date),
+    CONSTRAINT fk_expenses_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE,
+    CONSTRAINT check_expense_amount_positive CHECK (amount > 0)
+) PARTITION BY RANGE (date);
+
+CREATE TABLE incomes
+(
+    id         BIGINT         NOT NULL DEFAULT nextval('incomes_id_seq'),
+    user_id    BIGINT         NOT NULL,
+    amount     NUMERIC(15, 2) NOT NULL,
+    category   VARCHAR(50)    NOT NULL,
+    source     VARCHAR(100)   NOT NULL,
+    date       TIMESTAMPTZ    NOT NULL,
+    created_at TIMESTAMPTZ    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT pk_incomes PRIMARY KEY (id, date),
+    CONSTRAINT fk_incomes_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE,
+    CONSTRAINT check_income_amount_positive CHECK (amount > 0)
+) PARTITION BY RANGE (date);
+
+ALTER SEQUENCE expenses_id_seq OWNED BY expenses.id;
+ALTER SEQUENCE incomes_id_seq OWNED BY incomes.id;
+
+COMMENT ON CONSTRAINT check_income_amount_positive ON incomes
+    IS 'Доход не может быть отрицательным или нулевым';
+
+COMMENT ON CONSTRAINT check_expense_amount_positive ON expenses
+    IS 'Расход не может быть отрицательным или нулевым';
+
+-- Строки вне созданных месяцев (далёкое прошлое/будущее) попадают сюда, вставка не падает
+CREATE TABLE expenses_default PARTITION OF expenses DEFAULT;
+CREATE TABLE incomes_default PARTITION OF incomes DEFAULT;
+
+-- Создаёт партицию <parent>_yYYYYmMM за месяц p_month, если её ещё нет.
+-- Строки этого месяца, успевшие попасть в DEFAULT, переносятся в новую партицию.
+-- Вызывается миграцией и PartitionMaintenanceService (на старте и по расписанию).
+CREATE OR REPLACE FUNCTION create_month_partition(p_parent TEXT, p_month DATE)
+    RETURNS BOOLEAN
+    LANGUAGE plpgsql
+AS
+$$
+DECLARE
+    v_start   DATE := CAST(date_trunc('month', p_month) AS DATE);
+    v_end     DATE := CAST(date_trunc('month', p_month) + INTERVAL '1 month' AS DATE);
+    v_name    TEXT := p_parent || '_y' || to_char(v_start, 'YYYY') || 'm' || to_char(v_start, 'MM');
+    v_default TEXT := p_parent || '_default';
+BEGIN
+    IF to_regclass(v_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+
+    EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', v_name, p_parent);
+
+    IF to_regclass(v_default) IS NOT NULL THEN
+        EXECUTE format(
+                'WITH moved AS (DELETE FROM %I WHERE date >= %L AND date < %L RETURNING *) '
+                    || 'INSERT INTO %I SELECT * FROM moved',
+                v_default, v_start, v_end, v_name);
+    END IF;
+
+    EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   p_parent, v_name, v_start, v_end);
+    RETURN TRUE;
+END;
+$$;
+
+-- Партиции от первого месяца с данными до трёх месяцев вперёд
+DO
+$$
+DECLARE
+    v_table TEXT;
+    v_month DATE;
+    v_last  DATE := CAST(date_trunc('month', now()) + INTERVAL '3 months' AS DATE);
+BEGIN
+    FOREACH v_table IN ARRAY ARRAY ['expenses', 'incomes']
+        LOOP
+            EXECUTE format('SELECT CAST(date_trunc(''month'', MIN(date)) AS DATE) FROM %I', v_table || '_legacy')
+                INTO v_month;
+            v_month := LEAST(COALESCE(v_month, v_last), CAST(date_trunc('month', now()) AS DATE));
+            WHILE v_month <= v_last
+                LOOP
+                    PERFORM create_month_partition(v_table, v_month);
+                    v_month := CAST(v_month + INTERVAL '1 month' AS DATE);
+                END LOOP;
+        END LOOP;
+END;
+$$;
+
+INSERT INTO expenses (id, user_id, amount, category, description, date, created_at)
+SELECT id, user_id, amount, category, description, date, created_at
+FROM expenses_legacy;
+
+INSERT INTO incomes (id, user_id, amount, category, source, date, created_at)
+SELECT id, user_id, amount, category, source, date, created_at
+FROM incomes_legacy;
+
+DROP TABLE expenses_legacy;
+DROP TABLE incomes_legacy;
+
+-- Индексы создаются после загрузки и наследуются каждой партицией.
+-- Глобальные idx_*_date, idx_*_category, idx_*_user_id, idx_*_created_at и idx_incomes_source
+-- не переносятся: запросы приложения фильтруют по user_id + date, остальные только замедляли вставку.
+CREATE INDEX idx_expenses_user_date ON expenses (user_id, date DESC);
+CREATE INDEX idx_incomes_user_date ON incomes (user_id, date DESC);
+
+CREATE INDEX idx_expenses_user_date_category
+    ON expenses (user_id, date, category) INCLUDE (amount);
+CREATE INDEX idx_incomes_user_date_category
+    ON incomes (user_id, date, category) INCLUDE (amount);
+
+-- Вьюхи из V3 без изменений
+CREATE OR REPLACE VIEW user_income_summary AS
+SELECT
+    u.id,
+    u.chat_id,
+    u.user_name,
+    COUNT(i.id)                         AS income_count,
+    COALESCE(SUM(i.amount), 0)          AS total_income,
+    COALESCE(AVG(i.amount), 0)          AS avg_income,
+    MAX(i.date)                         AS last_income_date
+FROM users u
+         LEFT JOIN incomes i ON u.id = i.user_id
+GROUP BY u.id, u.chat_id, u.user_name;
+
+CREATE OR REPLACE VIEW user_expense_summary AS
+SELECT
+    u.id,
+    u.chat_id,
+    u.user_name,
+    COUNT(e.id)                         AS expense_count,
+    COALESCE(SUM(e.amount), 0)          AS total_expenses,
+    COALESCE(AVG(e.amount), 0)          AS avg_expense,
+    MAX(e.date)                         AS last_expense_date
+FROM users u
+         LEFT JOIN expenses e ON u.id = e.user_id
+GROUP BY u.id, u.chat_id, u.user_name;
+
+CREATE OR REPLACE VIEW user_financial_summary AS
+SELECT
+    u.id,
+    u.chat_id,
+    u.user_name,
+    COALESCE(uis.total_income, 0)           AS total_income,
+    COALESCE(ues.total_expenses, 0)         AS total_expenses,
+    COALESCE(uis.total_income, 0)
+        - COALESCE(ues.total_expenses, 0)   AS balance
+FROM users u
+         LEFT JOIN user_income_summary  uis ON u.id = uis.id
+         LEFT JOIN user_expense_summary ues ON u.id = ues.id;
+
+ANALYZE expenses;
+ANALYZE incomes;
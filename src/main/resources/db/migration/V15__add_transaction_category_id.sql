@@ -0,0 +1,85 @@
+-- Транзакции ссылаются на categories по id: разбивка по категориям группирует BIGINT, а не строки,
+-- переименование и слияние категории - один UPDATE по idx_*_category_id.
+-- Текстовый category остаётся подписью для выгрузок, импорта и monthly_rollup.
+
+ALTER TABLE expenses ADD COLUMN category_id BIGINT;
+ALTER TABLE incomes ADD COLUMN category_id BIGINT;
+
+-- Сопоставление без учёта регистра; при дублях вида "Кафе"/"кафе" берётся более ранняя категория
+CREATE TEMPORARY TABLE category_keys AS
+SELECT user_id, type, lower(name) AS name_key, MIN(id) AS id
+FROM categories
+GROUP BY user_id, type, lower(name);
+
+CREATE INDEX ON category_keys (user_id, type, name_key);
+ANALYZE category_keys;
+
+UPDATE expenses e
+SET category_id = k.id
+FROM category_keys k
+WHERE k.user_id = e.user_id AND k.type = 'EXPENSE' AND k.name_key = lower(e.category);
+
+UPDATE incomes i
+SET category_id = k.id
+FROM category_keys k
+WHERE k.user_id = i.user_id AND k.type = 'INCOME' AND k.name_key = lower(i.category);
+
+-- Как в CategoryService.findCategoryForDefault: "Рента" и старая "Аренда недвижимости" - одна категория
+UPDATE incomes i
+SET category_id = k.id
+FROM category_keys k
+WHERE i.category_id IS NULL
+  AND lower(i.category) IN ('рента', 'аренда недвижимости')
+  AND k.user_id = i.user_id AND k.type = 'INCOME'
+  AND k.name_key IN ('рента', 'аренда недвижимости');
+
+-- Названия, которых нет в categories (свободный текст до V11), становятся пользовательскими категориями
+INSERT INTO categories (user_id, name, type, is_system, created_at)
+SELECT DISTINCT ON (user_id, lower(category)) user_id, category, 'EXPENSE', FALSE, now()
+FROM expenses
+WHERE category_id IS NULL AND category IS NOT NULL AND category <> ''
+ORDER BY user_id, lower(category), category
+ON CONFLICT DO NOTHING;
+
+INSERT INTO categories (user_id, name, type, is_system, created_at)
+SELECT DISTINCT ON (user_id, lower(category)) user_id, category, 'INCOME', FALSE, now()
+FROM incomes
+WHERE category_id IS NULL AND category IS NOT NULL AND category <> ''
+ORDER BY user_id, lower(category), category
+ON CONFLICT DO NOTHING;
+
+UPDATE expenses e
+SET category_id = c.id
+FROM categories c
+WHERE e.category_id IS NULL
+  AND c.user_id = e.user_id AND c.type = 'EXPENSE' AND c.name = e.category;
+
+UPDATE incomes i
+SET category_id = c.id
+FROM categories c
+WHERE i.category_id IS NULL
+  AND c.user_id = i.user_id AND c.type = 'INCOME' AND c.name = i.category;
+
+DROP TABLE category_keys;
+
+-- Удаление категории не трогает транзакции: они остаются с текстовой подписью и category_id = NULL
+ALTER TABLE expenses
+    ADD CONSTRAINT fk_expenses_category FOREIGN KEY (category_id) REFERENCES categories (id) ON DELETE SET NULL;
+ALTER TABLE incomes
+    ADD CONSTRAINT fk_incomes_category FOREIGN KEY (category_id) REFERENCES categories (id) ON DELETE SET NULL;
+
+-- Переименование/слияние и ON DELETE SET NULL. id категории уникален глобально, user_id в ключе не нужен
+CREATE INDEX idx_expenses_category_id ON expenses (category_id);
+CREATE INDEX idx_incomes_category_id ON incomes (category_id);
+
+-- Разбивка за период: index-only scan по id категории вместо строки (V13)
+DROP INDEX idx_expenses_user_date_category;
+DROP INDEX idx_incomes_user_date_category;
+
+CREATE INDEX idx_expenses_user_date_category_id
+    ON expenses (user_id, date, category_id) INCLUDE (amount);
+CREATE INDEX idx_incomes_user_date_category_id
+    ON incomes (user_id, date, category_id) INCLUDE (amount);
+
+ANALYZE expenses;
+ANALYZE incomes;
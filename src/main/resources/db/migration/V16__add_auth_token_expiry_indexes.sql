@@ -0,0 +1,7 @@
+-- Индексы для TokenReaperService: удаление просроченных/отозванных токенов пачками без seq scan.
+-- Частичные индексы содержат только строки-кандидаты, активные токены в них не попадают.
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_expires_at ON refresh_tokens (expires_at);
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_revoked ON refresh_tokens (revoked_at) WHERE revoked_at IS NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_password_reset_tokens_expires_at ON password_reset_tokens (expires_at);
+CREATE INDEX IF NOT EXISTS idx_password_reset_tokens_used ON password_reset_tokens (used_at) WHERE used_at IS NOT NULL;
@@ -0,0 +1,82 @@
+package com.example.fintrackerpro.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReadReplicaRoutingDataSourceTest {
+
+    @Mock
+    private ReplicaLagMonitor lagMonitor;
+
+    private ReadYourWritesTracker readYourWrites;
+    private ReadReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() {
+        readYourWrites = new ReadYourWritesTracker(Duration.ofSeconds(10), 100);
+        routing = new ReadReplicaRoutingDataSource(lagMonitor, readYourWrites);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(1L, null, List.of()));
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clear();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Read-only транзакция - в реплику")
+    void readOnly_GoesToReplica() {
+        when(lagMonitor.isReplicaUsable()).thenReturn(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(DataSourceRole.REPLICA);
+    }
+
+    @Test
+    @DisplayName("Реплика отстаёт - read-only транзакция в primary")
+    void readOnly_ReplicaLagging_GoesToPrimary() {
+        when(lagMonitor.isReplicaUsable()).thenReturn(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(DataSourceRole.PRIMARY);
+    }
+
+    @Test
+    @DisplayName("После коммита своей записи пользователь читает из primary")
+    void write_ThenRead_ReadYourWrites() {
+        // Запись: primary, окно начинается только после коммита
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(DataSourceRole.PRIMARY);
+        assertThat(readYourWrites.recentlyWrote(1L)).isFalse();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(readYourWrites.recentlyWrote(1L)).isTrue();
+
+        // Чтение того же пользователя - тоже primary, реплика даже не спрашивается
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(DataSourceRole.PRIMARY);
+
+        // Другой пользователь читает из реплики
+        when(lagMonitor.isReplicaUsable()).thenReturn(true);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(2L, null, List.of()));
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(DataSourceRole.REPLICA);
+    }
+}
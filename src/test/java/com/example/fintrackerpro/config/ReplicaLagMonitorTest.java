@@ -0,0 +1,75 @@
+package com.example.fintrackerpro.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaLagMonitorTest {
+
+    private static final String PRIMARY_LSN = "0/3000148";
+
+    @Mock
+    private JdbcTemplate primaryJdbc;
+    @Mock
+    private JdbcTemplate replicaJdbc;
+
+    private SimpleMeterRegistry registry;
+    private ReplicaLagMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        monitor = new ReplicaLagMonitor(primaryJdbc, replicaJdbc, Duration.ofSeconds(5), registry);
+    }
+
+    @Test
+    @DisplayName("Реплика догнала позицию WAL primary - используется")
+    void check_CaughtUp_Usable() {
+        when(primaryJdbc.queryForObject(ReplicaLagMonitor.PRIMARY_LSN_SQL, String.class)).thenReturn(PRIMARY_LSN);
+        when(replicaJdbc.queryForObject(ReplicaLagMonitor.LAG_SQL, Double.class, PRIMARY_LSN)).thenReturn(0d);
+
+        monitor.check();
+
+        assertThat(monitor.isReplicaUsable()).isTrue();
+        assertThat(registry.get("fintracker_datasource_replica_lag_seconds")
+                .tag("service", "fintracker-api").tag("env", "prod").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("Primary ушёл вперёд, реплика стоит (WAL receiver отвалился) - отставание растёт, реплика выключается")
+    void check_ReceiverStalled_NotUsable() {
+        when(primaryJdbc.queryForObject(ReplicaLagMonitor.PRIMARY_LSN_SQL, String.class)).thenReturn(PRIMARY_LSN);
+        when(replicaJdbc.queryForObject(ReplicaLagMonitor.LAG_SQL, Double.class, PRIMARY_LSN)).thenReturn(42d);
+
+        monitor.check();
+
+        assertThat(monitor.isReplicaUsable()).isFalse();
+        assertThat(registry.get("fintracker_datasource_replica_lag_seconds").gauge().value()).isEqualTo(42d);
+    }
+
+    @Test
+    @DisplayName("Primary недоступен - отставание не измерить, реплика не используется")
+    void check_PrimaryDown_NotUsable() {
+        when(primaryJdbc.queryForObject(ReplicaLagMonitor.PRIMARY_LSN_SQL, String.class))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"));
+
+        monitor.check();
+
+        assertThat(monitor.isReplicaUsable()).isFalse();
+        assertThat(registry.get("fintracker_datasource_replica_lag_seconds").gauge().value()).isNaN();
+        verifyNoInteractions(replicaJdbc);
+    }
+}
@@ -14,6 +14,8 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.FilterType;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -26,6 +28,8 @@ import java.time.LocalDate;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
@@ -146,4 +150,21 @@ class ExpenseControllerTest {
 
         verify(expenseService).deleteExpense(1L, 1L);
     }
+
+    @Test
+    @DisplayName("GET /api/expenses/me/month/{y}/{m}?withTotal=false - Slice без COUNT")
+    void getMyExpensesByMonth_WithoutTotal_ReturnsSlice() throws Exception {
+        when(expenseService.getExpensesByUserAndMonthSlice(1L, 2024, 3, PageRequest.of(0, 10)))
+                .thenReturn(new SliceImpl<>(List.of(testExpense), PageRequest.of(0, 10), true));
+
+        mockMvc.perform(get("/api/expenses/me/month/2024/3")
+                        .param("withTotal", "false")
+                        .with(authentication(authUser1())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(1))
+                .andExpect(jsonPath("$.last").value(false))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+
+        verify(expenseService, never()).getExpensesByUserAndMonth(anyLong(), anyInt(), anyInt(), any());
+    }
 }
@@ -0,0 +1,134 @@
+package com.example.fintrackerpro.repository;
+
+import com.example.fintrackerpro.service.MonthRange;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * EXPLAIN-регрессия: запросы за месяц должны идти range scan'ом по (user_id, date),
+ * а не фильтровать YEAR()/MONTH() по всем строкам пользователя.
+ */
+@ActiveProfiles("test")
+@DataJpaTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+                "com.example.fintrackerpro.repository.SqlStatementRecorder")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Sql(statements = {
+        "CREATE INDEX IF NOT EXISTS idx_incomes_user_date ON incomes (user_id, date DESC)",
+        "CREATE INDEX IF NOT EXISTS idx_expenses_user_date ON expenses (user_id, date DESC)"
+})
+@DisplayName("Month queries use idx_*_user_date")
+class MonthQueryIndexUsageTest {
+
+    private static final MonthRange MARCH = MonthRange.of(2024, 3);
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private IncomeRepository incomeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        SqlStatementRecorder.reset();
+    }
+
+    @Test
+    @DisplayName("Сумма расходов за месяц - range scan по idx_expenses_user_date")
+    void expenseMonthTotal_UsesCompositeIndex() {
+        expenseRepository.getTotalExpenseByUserAndPeriod(1L, MARCH.start(), MARCH.end());
+
+        assertDateRangeOnIndex(lastSelect("expenses"), "idx_expenses_user_date");
+    }
+
+    @Test
+    @DisplayName("Расходы за месяц (страница) - range scan по idx_expenses_user_date")
+    void expenseMonthPage_UsesCompositeIndex() {
+        expenseRepository.findResponsesByUserIdAndPeriod(1L, MARCH.start(), MARCH.end(), PageRequest.of(0, 10));
+
+        assertDateRangeOnIndex(lastSelect("expenses"), "idx_expenses_user_date");
+    }
+
+    @Test
+    @DisplayName("Сумма доходов за месяц - range scan по idx_incomes_user_date")
+    void incomeMonthTotal_UsesCompositeIndex() {
+        incomeRepository.getTotalIncomeByUserAndPeriod(1L, MARCH.start(), MARCH.end());
+
+        assertDateRangeOnIndex(lastSelect("incomes"), "idx_incomes_user_date");
+    }
+
+    @Test
+    @DisplayName("Доходы за месяц (страница) - range scan по idx_incomes_user_date")
+    void incomeMonthPage_UsesCompositeIndex() {
+        incomeRepository.findResponsesByUserIdAndPeriod(1L, MARCH.start(), MARCH.end(), PageRequest.of(0, 10));
+
+        assertDateRangeOnIndex(lastSelect("incomes"), "idx_incomes_user_date");
+    }
+
+    private String lastSelect(String table) {
+        List<String> statements = SqlStatementRecorder.statements();
+        for (int i = statements.size() - 1; i >= 0; i--) {
+            String sql = statements.get(i).toLowerCase(Locale.ROOT);
+            if (sql.startsWith("select") && sql.contains(table) && !sql.contains("count(")) {
+                return statements.get(i);
+            }
+        }
+        throw new AssertionError("No SELECT on " + table + " captured: " + statements);
+    }
+
+    /**
+     * Подставляет параметры (userId, from, to, затем limit/offset) и проверяет,
+     * что обе границы даты попали в условие индекса, а не в отдельный фильтр.
+     */
+    private void assertDateRangeOnIndex(String sql, String indexName) {
+        String[] literals = {
+                "1",
+                "TIMESTAMP '" + MARCH.start().toString().replace('T', ' ') + ":00'",
+                "TIMESTAMP '" + MARCH.end().toString().replace('T', ' ') + ":00'"
+        };
+        StringBuilder bound = new StringBuilder();
+        int param = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                bound.append(param < literals.length ? literals[param] : "10");
+                param++;
+            } else {
+                bound.append(c);
+            }
+        }
+
+        String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + bound, String.class))
+                .toLowerCase(Locale.ROOT)
+                .replace("\"", "");
+
+        // Условия индекса H2 пишет в комментарии после таблицы, порядок и форма (cast) не фиксированы
+        Matcher indexCondition = Pattern.compile("/\\*[^*]*" + indexName + ":([^*]*)\\*/").matcher(plan);
+        assertThat(indexCondition.find())
+                .as("plan should range-scan %s on (user_id, date):%n%s", indexName, plan)
+                .isTrue();
+        String condition = indexCondition.group(1);
+        assertThat(condition)
+                .as("index condition of %s:%n%s", indexName, plan)
+                .containsPattern("user_id = (cast\\()?1( as bigint\\))?")
+                .contains("date >= ")
+                .contains("date < ");
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.fintrackerpro.security;
+
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("JwtUtil Unit Tests")
+class JwtUtilTest {
+
+    static final String SECRET = "ZmludHJhY2tlci10ZXN0LXNlY3JldC1rZXktMzItYnl0ZXMtbG9uZyEhIQ==";
+
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = newJwtUtil(900_000);
+    }
+
+    static JwtUtil newJwtUtil(long accessExpirationMs) {
+        JwtUtil util = new JwtUtil();
+        ReflectionTestUtils.setField(util, "secretBase64", SECRET);
+        ReflectionTestUtils.setField(util, "accessExpirationMs", accessExpirationMs);
+        ReflectionTestUtils.setField(util, "refreshExpirationMs", 604_800_000L);
+        ReflectionTestUtils.setField(util, "issuer", "fintracker");
+        ReflectionTestUtils.setField(util, "audience", "fintracker-frontend");
+        ReflectionTestUtils.setField(util, "cacheMaxSize", 100L);
+        ReflectionTestUtils.setField(util, "cacheMaxTtlSeconds", 900L);
+        util.init();
+        return util;
+    }
+
+    @Test
+    @DisplayName("Проверка токена - userId, тип и exp из одного разбора")
+    void verify_ReturnsClaims() {
+        String token = jwtUtil.generateAccessToken(42L);
+
+        JwtUtil.VerifiedToken verified = jwtUtil.verify(token);
+
+        assertThat(verified.userId()).isEqualTo(42L);
+        assertThat(verified.type()).isEqualTo("access");
+        assertThat(verified.expiresAt()).isAfter(Instant.now());
+        assertThat(verified.isExpired()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Повторная проверка - тот же результат из кэша")
+    void verify_SecondCallServedFromCache() {
+        String token = jwtUtil.generateAccessToken(42L);
+
+        JwtUtil.VerifiedToken first = jwtUtil.verify(token);
+        JwtUtil.VerifiedToken second = jwtUtil.verify(token);
+
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    @DisplayName("Подделанная подпись - ошибка, в кэш не попадает")
+    void verify_TamperedToken_Throws() {
+        String token = jwtUtil.generateAccessToken(42L);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThatThrownBy(() -> jwtUtil.verify(tampered)).isInstanceOf(JwtException.class);
+        assertThatThrownBy(() -> jwtUtil.verify(tampered)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    @DisplayName("Истёкший токен - отклоняется")
+    void verify_ExpiredToken_Throws() {
+        String token = newJwtUtil(-1_000).generateAccessToken(42L);
+
+        assertThatThrownBy(() -> jwtUtil.verify(token)).isInstanceOf(JwtException.class);
+        assertThat(jwtUtil.isExpired(token)).isTrue();
+    }
+}
@@ -0,0 +1,241 @@
+package com.example.fintrackerpro.service;
+
+import com.example.fintrackerpro.dto.CategoryRemapResponse;
+import com.example.fintrackerpro.dto.CategoryRenameRequest;
+import com.example.fintrackerpro.dto.CategoryRequest;
+import com.example.fintrackerpro.dto.CategoryResponse;
+import com.example.fintrackerpro.entity.category.Category;
+import com.example.fintrackerpro.entity.category.CategoryType;
+import com.example.fintrackerpro.entity.user.User;
+import com.example.fintrackerpro.repository.CategoryRepository;
+import com.example.fintrackerpro.repository.ExpenseRepository;
+import com.example.fintrackerpro.repository.IncomeRepository;
+import com.example.fintrackerpro.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CategoryService Unit Tests")
+class CategoryServiceTest {
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ExpenseRepository expenseRepository;
+
+    @Mock
+    private IncomeRepository incomeRepository;
+
+    @Mock
+    private MonthlyRollupService rollupService;
+
+    private CategoryService categoryService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        categoryService = new CategoryService(categoryRepository, userRepository, jdbcTemplate,
+                new CategoryCatalogCache(new SimpleMeterRegistry(), 100, 3600), transactionManager,
+                expenseRepository, incomeRepository, rollupService);
+        user = new User();
+        user.setId(1L);
+    }
+
+    @Test
+    @DisplayName("Каталог категорий - повторный запрос отдаётся из памяти")
+    void getCategories_SecondCallFromCache() {
+        when(categoryRepository.findByUserIdAndTypeOrderByNameAsc(1L, CategoryType.EXPENSE))
+                .thenReturn(List.of(category(1L, "Кафе", true), category(2L, "Продукты", true)));
+
+        List<CategoryResponse> first = categoryService.getCategories(1L, CategoryType.EXPENSE);
+        List<CategoryResponse> second = categoryService.getCategories(1L, CategoryType.EXPENSE);
+
+        assertThat(first).extracting(CategoryResponse::getName).containsExactly("Продукты", "Кафе");
+        assertThat(second).isSameAs(first);
+        verify(categoryRepository, times(1)).findByUserIdAndTypeOrderByNameAsc(1L, CategoryType.EXPENSE);
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Каталог категорий - дефолтные засеваются одним INSERT")
+    void getCategories_SeedsDefaultsWithSingleInsert() {
+        when(categoryRepository.findByUserIdAndTypeOrderByNameAsc(1L, CategoryType.INCOME))
+                .thenReturn(List.of(), List.of(category(1L, "Работа", true)));
+
+        categoryService.getCategories(1L, CategoryType.INCOME);
+
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate, times(1)).update(anyString(), args.capture());
+        // 10 дефолтных категорий дохода по 4 параметра
+        assertThat(args.getValue()).hasSize(40);
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    @DisplayName("Каталог категорий - загрузка в отдельной транзакции, не в транзакции вызывающего")
+    void getCategories_LoadsInNewTransaction() {
+        when(categoryRepository.findByUserIdAndTypeOrderByNameAsc(1L, CategoryType.EXPENSE))
+                .thenReturn(List.of(category(1L, "Продукты", true)));
+
+        categoryService.getCategories(1L, CategoryType.EXPENSE);
+
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+        assertThat(definition.getValue().getPropagationBehavior())
+                .isEqualTo(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Test
+    @DisplayName("Запись со ссылкой на удалённую категорию - каталог сбрасывается, запись повторяется с новым id")
+    void withCategoryRetry_StaleCategory_RetriesWithFreshId() {
+        List<String> events = new ArrayList<>();
+        List<List<Category>> catalogs = List.of(List.of(category(7L, "Кафе", true)), List.of(category(9L, "Кафе", true)));
+        when(categoryRepository.findByUserIdAndTypeOrderByNameAsc(1L, CategoryType.EXPENSE)).thenAnswer(inv -> {
+            events.add("load");
+            return catalogs.get(events.size() < 3 ? 0 : 1);
+        });
+
+        Long written = categoryService.withCategoryRetry(1L, CategoryType.EXPENSE, "кафе", categoryId -> {
+            events.add("write " + categoryId);
+            if (events.size() == 2) {
+                throw new DataIntegrityViolationException("insert failed",
+                        new SQLException("violates foreign key constraint \"fk_expenses_category\"", "23503"));
+            }
+            return categoryId;
+        });
+
+        assertThat(written).isEqualTo(9L);
+        // Каталог читается до транзакции записи, а не внутри неё: там промах занял бы второе соединение
+        assertThat(events).containsExactly("load", "write 7", "load", "write 9");
+    }
+
+    @Test
+    @DisplayName("Запись - нарушение FK на users не повторяется")
+    void withCategoryRetry_UserViolation_NotRetried() {
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("insert failed",
+                new SQLException("violates foreign key constraint \"fk_expenses_user\"", "23503"));
+        List<Integer> attempts = new ArrayList<>();
+
+        assertThatThrownBy(() -> categoryService.withCategoryRetry(1L, CategoryType.EXPENSE, null, categoryId -> {
+            attempts.add(attempts.size());
+            throw violation;
+        })).isSameAs(violation);
+        assertThat(attempts).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Создание категории сбрасывает каталог этого типа")
+    void createCategory_EvictsCatalog() {
+        when(categoryRepository.findByUserIdAndTypeOrderByNameAsc(1L, CategoryType.EXPENSE))
+                .thenReturn(List.of(category(1L, "Продукты", true)));
+        categoryService.getCategories(1L, CategoryType.EXPENSE);
+
+        CategoryRequest request = new CategoryRequest();
+        request.setName("Путешествия");
+        request.setType(CategoryType.EXPENSE);
+        when(categoryRepository.findByUserIdAndTypeAndNameIgnoreCase(1L, CategoryType.EXPENSE, "Путешествия"))
+                .thenReturn(Optional.empty());
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(categoryRepository.save(any(Category.class))).thenAnswer(inv -> inv.getArgument(0));
+        categoryService.createCategory(1L, request);
+
+        categoryService.getCategories(1L, CategoryType.EXPENSE);
+
+        verify(categoryRepository, times(2)).findByUserIdAndTypeOrderByNameAsc(1L, CategoryType.EXPENSE);
+    }
+
+    @Test
+    @DisplayName("Слияние категорий - транзакции перепривязываются одним UPDATE, исходная удаляется")
+    void mergeCategory_RemapsTransactionsInOneStatement() {
+        Category source = category(3L, "Кафешки", false);
+        Category target = category(2L, "Кафе", true);
+        when(categoryRepository.findByIdAndUserId(3L, 1L)).thenReturn(Optional.of(source));
+        when(categoryRepository.findByIdAndUserId(2L, 1L)).thenReturn(Optional.of(target));
+        when(expenseRepository.remapCategory(1L, 3L, 2L, "Кафе")).thenReturn(42);
+
+        CategoryRemapResponse result = categoryService.mergeCategory(1L, 3L, 2L);
+
+        assertThat(result.getTransactionsUpdated()).isEqualTo(42);
+        assertThat(result.getCategory().getId()).isEqualTo(2L);
+        verify(expenseRepository, times(1)).remapCategory(1L, 3L, 2L, "Кафе");
+        verify(categoryRepository).delete(source);
+        verify(rollupService).relabel(1L, CategoryType.EXPENSE, "Кафешки", "Кафе");
+        verifyNoInteractions(incomeRepository);
+    }
+
+    @Test
+    @DisplayName("Переименование - строки rollup переносятся со старой подписи, без пересчёта истории")
+    void renameCategory_RelabelsRollup() {
+        when(categoryRepository.findByIdAndUserId(3L, 1L)).thenReturn(Optional.of(category(3L, "Кафешки", false)));
+        when(categoryRepository.findByUserIdAndTypeAndNameIgnoreCase(1L, CategoryType.EXPENSE, "Кофейни"))
+                .thenReturn(Optional.empty());
+        when(expenseRepository.remapCategory(1L, 3L, 3L, "Кофейни")).thenReturn(5);
+        CategoryRenameRequest request = new CategoryRenameRequest();
+        request.setName("Кофейни");
+
+        CategoryRemapResponse result = categoryService.renameCategory(1L, 3L, request);
+
+        assertThat(result.getTransactionsUpdated()).isEqualTo(5);
+        verify(rollupService).relabel(1L, CategoryType.EXPENSE, "Кафешки", "Кофейни");
+        verifyNoMoreInteractions(rollupService);
+    }
+
+    @Test
+    @DisplayName("Переименование в существующее название - 409, транзакции не трогаются")
+    void renameCategory_NameTaken() {
+        when(categoryRepository.findByIdAndUserId(3L, 1L)).thenReturn(Optional.of(category(3L, "Кафешки", false)));
+        when(categoryRepository.findByUserIdAndTypeAndNameIgnoreCase(1L, CategoryType.EXPENSE, "Кафе"))
+                .thenReturn(Optional.of(category(2L, "Кафе", true)));
+        CategoryRenameRequest request = new CategoryRenameRequest();
+        request.setName("  Кафе ");
+
+        assertThatThrownBy(() -> categoryService.renameCategory(1L, 3L, request))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("уже есть");
+        verifyNoInteractions(expenseRepository, rollupService);
+    }
+
+    private Category category(Long id, String name, boolean system) {
+        return Category.builder()
+                .id(id)
+                .user(user)
+                .name(name)
+                .type(CategoryType.EXPENSE)
+                .system(system)
+                .createdAt(LocalDateTime.of(2024, 1, 1, 0, 0))
+                .build();
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.fintrackerpro.service;
+
+import com.example.fintrackerpro.dto.CursorPage;
+import com.example.fintrackerpro.dto.DashboardDto;
+import com.example.fintrackerpro.dto.MonthlySummaryDto;
+import com.example.fintrackerpro.entity.category.CategoryType;
+import com.example.fintrackerpro.entity.user.User;
+import com.example.fintrackerpro.entity.user.UserSettingsDto;
+import com.example.fintrackerpro.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DashboardServiceTest {
+
+    @Mock
+    private UserService userService;
+    @Mock
+    private SummaryService summaryService;
+    @Mock
+    private CategoryService categoryService;
+    @Mock
+    private UserSettingsService userSettingsService;
+    @Mock
+    private IncomeService incomeService;
+    @Mock
+    private ExpenseService expenseService;
+
+    private DashboardService dashboardService;
+
+    @BeforeEach
+    void setUp() {
+        // Секции выполняются в вызывающем потоке - порядок вызовов детерминирован
+        dashboardService = new DashboardService(userService, summaryService, categoryService,
+                userSettingsService, incomeService, expenseService, Runnable::run, 1000);
+    }
+
+    @Test
+    @DisplayName("Дашборд - один поиск пользователя, все секции и тайминги")
+    void getDashboard_AllSections() {
+        // Given
+        User user = new User();
+        user.setId(1L);
+        when(userService.getUserEntityById(1L)).thenReturn(user);
+        when(summaryService.getMonthlySummary(1L, 2024, 3)).thenReturn(MonthlySummaryDto.builder().year(2024).month(3).build());
+        when(summaryService.getUsedMonths(1L)).thenReturn(List.of("2024-03"));
+        when(categoryService.getCategories(eq(1L), any(CategoryType.class))).thenReturn(List.of());
+        when(userSettingsService.toSettings(user)).thenReturn(new UserSettingsDto());
+        when(incomeService.getIncomesByExistingUserCursor(1L, null, DashboardService.FIRST_PAGE_SIZE))
+                .thenReturn(new CursorPage<>(List.of(), null, false));
+        when(expenseService.getExpensesByExistingUserCursor(1L, null, DashboardService.FIRST_PAGE_SIZE))
+                .thenReturn(new CursorPage<>(List.of(), null, false));
+
+        // When
+        DashboardService.Dashboard result = dashboardService.getDashboard(1L, 2024, 3);
+
+        // Then
+        DashboardDto payload = result.payload();
+        assertThat(payload.getSummary().getMonth()).isEqualTo(3);
+        assertThat(payload.getUsedMonths()).containsExactly("2024-03");
+        assertThat(payload.getSettings()).isNotNull();
+        assertThat(payload.getExpenses().isHasNext()).isFalse();
+        assertThat(result.timingsMs()).containsOnlyKeys(
+                "user", "summary", "months", "income-categories", "expense-categories", "incomes", "expenses", "total");
+
+        verify(userService, times(1)).getUserEntityById(1L);
+        verify(incomeService, never()).getIncomesByUserCursor(anyLong(), any(), anyInt());
+        verify(userSettingsService, never()).getSettings(anyLong());
+    }
+
+    @Test
+    @DisplayName("Дашборд - пользователь не найден, секции не запускаются")
+    void getDashboard_UserNotFound() {
+        when(userService.getUserEntityById(99L)).thenThrow(new ResourceNotFoundException("User not found with id: 99"));
+
+        assertThatThrownBy(() -> dashboardService.getDashboard(99L, 2024, 3))
+                .isInstanceOf(ResourceNotFoundException.class);
+        verifyNoInteractions(summaryService, categoryService, incomeService, expenseService);
+    }
+
+    @Test
+    @DisplayName("Дашборд - ошибка секции пробрасывается как есть")
+    void getDashboard_SectionFailure() {
+        when(userService.getUserEntityById(1L)).thenReturn(new User());
+        when(summaryService.getMonthlySummary(1L, 2024, 3)).thenThrow(new IllegalStateException("db down"));
+
+        assertThatThrownBy(() -> dashboardService.getDashboard(1L, 2024, 3))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("db down");
+    }
+
+    @Test
+    @DisplayName("Дашборд - по таймауту секции отменяются: очередь не стартует, текущая прерывается")
+    void getDashboard_Timeout_CancelsSections() throws Exception {
+        // Given: один поток, первая секция висит - остальные ждут в очереди
+        ExecutorService single = Executors.newSingleThreadExecutor();
+        DashboardService service = new DashboardService(userService, summaryService, categoryService,
+                userSettingsService, incomeService, expenseService, single, 100);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(userService.getUserEntityById(1L)).thenReturn(new User());
+        when(summaryService.getMonthlySummary(1L, 2024, 3)).thenAnswer(invocation -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return null;
+        });
+
+        try {
+            // When & Then
+            assertThatThrownBy(() -> service.getDashboard(1L, 2024, 3))
+                    .isInstanceOf(ResponseStatusException.class)
+                    .hasMessageContaining("503");
+            assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            single.shutdown();
+            assertThat(single.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        }
+        verify(summaryService, never()).getUsedMonths(anyLong());
+        verifyNoInteractions(categoryService, incomeService, expenseService);
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.fintrackerpro.service;
 
+import com.example.fintrackerpro.dto.CursorPage;
 import com.example.fintrackerpro.dto.ExpenseResponse;
+import com.example.fintrackerpro.entity.category.CategoryType;
 import com.example.fintrackerpro.entity.expense.Expense;
 import com.example.fintrackerpro.entity.expense.ExpenseRequest;
 import com.example.fintrackerpro.entity.user.User;
@@ -14,14 +16,21 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,6 +43,12 @@ class ExpenseServiceTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private MonthlyRollupService rollupService;
+
+    @Mock
+    private CategoryService categoryService;
+
     @InjectMocks
     private ExpenseService expenseService;
 
@@ -60,12 +75,17 @@ class ExpenseServiceTest {
         entity.setCategory(req.getCategory());
         entity.setDescription(req.getDescription());
         entity.setDate(req.getDate().atTime(LocalTime.MIDNIGHT));
+
+        // Повтор записи проверяется в CategoryServiceTest, здесь - одна попытка
+        lenient().when(categoryService.withCategoryRetry(anyLong(), any(), any(), any()))
+                .thenAnswer(inv -> inv.<Function<Long, ?>>getArgument(3).apply(
+                        categoryService.findCategoryId(inv.getArgument(0), inv.getArgument(1), inv.getArgument(2))));
     }
 
     @Test
     @DisplayName("Добавить расход - успешно")
     void addExpense_Success() {
-        when(userService.getUserEntityById(1L)).thenReturn(user);
+        when(userService.getUserReference(1L)).thenReturn(user);
         when(expenseRepository.save(any(Expense.class))).thenReturn(entity);
 
         ExpenseResponse dto = expenseService.addExpense(1L, req);
@@ -75,14 +95,17 @@ class ExpenseServiceTest {
         assertThat(dto.getAmount()).isEqualByComparingTo("1500.00");
         assertThat(dto.getDate()).isEqualTo(LocalDate.of(2024, 3, 15));
 
-        verify(userService).getUserEntityById(1L);
+        verify(userService).getUserReference(1L);
+        verify(userService, never()).getUserEntityById(anyLong());
         verify(expenseRepository).save(any(Expense.class));
+        verify(rollupService).added(1L, CategoryType.EXPENSE,
+                LocalDate.of(2024, 3, 15).atTime(LocalTime.MIDNIGHT), "Продукты", new BigDecimal("1500.00"));
     }
 
     @Test
     @DisplayName("Добавить расход - проверка преобразования даты (пишем в БД полночь)")
     void addExpense_DateConversion_Success() {
-        when(userService.getUserEntityById(1L)).thenReturn(user);
+        when(userService.getUserReference(1L)).thenReturn(user);
 
         ArgumentCaptor<Expense> captor = ArgumentCaptor.forClass(Expense.class);
         when(expenseRepository.save(captor.capture())).thenAnswer(inv -> inv.getArgument(0));
@@ -95,6 +118,35 @@ class ExpenseServiceTest {
         assertThat(dto.getDate()).isEqualTo(LocalDate.of(2024, 3, 15));
     }
 
+    @Test
+    @DisplayName("Добавить расход - category_id берётся из каталога категорий")
+    void addExpense_ResolvesCategoryId() {
+        when(userService.getUserReference(1L)).thenReturn(user);
+        when(categoryService.findCategoryId(1L, CategoryType.EXPENSE, "Продукты")).thenReturn(7L);
+        ArgumentCaptor<Expense> captor = ArgumentCaptor.forClass(Expense.class);
+        when(expenseRepository.save(captor.capture())).thenAnswer(inv -> inv.getArgument(0));
+
+        expenseService.addExpense(1L, req);
+
+        assertThat(captor.getValue().getCategoryId()).isEqualTo(7L);
+        assertThat(captor.getValue().getCategory()).isEqualTo("Продукты");
+    }
+
+    @Test
+    @DisplayName("Добавить расход - пользователь удалён: нарушение FK даёт 404")
+    void addExpense_UserDeleted_ForeignKeyViolation() {
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("fk_expenses_user");
+        when(userService.getUserReference(1L)).thenReturn(user);
+        when(expenseRepository.save(any(Expense.class))).thenThrow(violation);
+        when(userService.translateWriteFailure(1L, violation))
+                .thenReturn(new ResourceNotFoundException("User not found with id: 1"));
+
+        assertThatThrownBy(() -> expenseService.addExpense(1L, req))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessageContaining("User not found");
+        verifyNoInteractions(rollupService);
+    }
+
     @Test
     @DisplayName("Получить расход по ID - успешно (только свой)")
     void getExpenseById_Success() {
@@ -139,6 +191,9 @@ class ExpenseServiceTest {
 
         verify(expenseRepository).findByIdAndUserId(10L, 1L);
         verify(expenseRepository).save(any(Expense.class));
+        verify(rollupService).changed(1L, CategoryType.EXPENSE,
+                LocalDate.of(2024, 3, 15).atTime(LocalTime.MIDNIGHT), "Продукты", new BigDecimal("1500.00"),
+                LocalDate.of(2024, 3, 20).atTime(LocalTime.MIDNIGHT), "Продукты", new BigDecimal("2000.00"));
     }
 
     @Test
@@ -151,5 +206,58 @@ class ExpenseServiceTest {
 
         verify(expenseRepository).findByIdAndUserId(10L, 1L);
         verify(expenseRepository).delete(entity);
+        verify(rollupService).removed(1L, CategoryType.EXPENSE,
+                entity.getDate(), entity.getCategory(), entity.getAmount());
+    }
+
+    @Test
+    @DisplayName("Курсорная пагинация - первая страница и курсор на следующую")
+    void getExpensesByUserCursor_FirstPage() {
+        Expense second = new Expense();
+        second.setId(9L);
+        second.setUser(user);
+        second.setAmount(new BigDecimal("10.00"));
+        second.setDate(LocalDateTime.of(2024, 3, 14, 0, 0));
+        Expense third = new Expense();
+        third.setId(8L);
+        third.setUser(user);
+        third.setAmount(new BigDecimal("20.00"));
+        third.setDate(LocalDateTime.of(2024, 3, 13, 0, 0));
+
+        when(expenseRepository.findKeysetFirstPage(1L, PageRequest.ofSize(3)))
+                .thenReturn(List.of(entity, second, third));
+
+        CursorPage<ExpenseResponse> page = expenseService.getExpensesByUserCursor(1L, null, 2);
+
+        assertThat(page.getContent()).extracting(ExpenseResponse::getId).containsExactly(10L, 9L);
+        assertThat(page.isHasNext()).isTrue();
+        assertThat(KeysetCursor.decode(page.getNextCursor()))
+                .isEqualTo(new KeysetCursor(LocalDateTime.of(2024, 3, 14, 0, 0), 9L));
+        verify(expenseRepository, never()).findKeysetPageAfter(anyLong(), any(), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("Курсорная пагинация - последняя страница без курсора")
+    void getExpensesByUserCursor_LastPage() {
+        LocalDateTime date = LocalDateTime.of(2024, 3, 16, 0, 0);
+        String cursor = new KeysetCursor(date, 11L).encode();
+
+        when(expenseRepository.findKeysetPageAfter(1L, date, 11L, PageRequest.ofSize(3)))
+                .thenReturn(List.of(entity));
+
+        CursorPage<ExpenseResponse> page = expenseService.getExpensesByUserCursor(1L, cursor, 2);
+
+        assertThat(page.getContent()).singleElement().extracting(ExpenseResponse::getId).isEqualTo(10L);
+        assertThat(page.isHasNext()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Курсорная пагинация - битый курсор даёт 400")
+    void getExpensesByUserCursor_InvalidCursor() {
+
+        assertThatThrownBy(() -> expenseService.getExpensesByUserCursor(1L, "не-курсор", 10))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("Некорректный курсор");
     }
 }
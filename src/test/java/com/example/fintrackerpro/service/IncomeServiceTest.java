@@ -1,6 +1,7 @@
 package com.example.fintrackerpro.service;
 
 import com.example.fintrackerpro.dto.IncomeResponse;
+import com.example.fintrackerpro.entity.category.CategoryType;
 import com.example.fintrackerpro.entity.income.Income;
 import com.example.fintrackerpro.entity.income.IncomeRequest;
 import com.example.fintrackerpro.entity.user.User;
@@ -14,6 +15,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -25,9 +27,11 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.Arrays;
 import java.util.Optional;
+import java.util.function.Function;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -40,6 +44,12 @@ class IncomeServiceTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private MonthlyRollupService rollupService;
+
+    @Mock
+    private CategoryService categoryService;
+
     @InjectMocks
     private IncomeService incomeService;
 
@@ -69,12 +79,17 @@ class IncomeServiceTest {
         incomeRequest.setSource("Зарплата");
         incomeRequest.setCategory("Зарплата за март");
         incomeRequest.setDate(LocalDate.of(2024, 3, 15));
+
+        // Повтор записи проверяется в CategoryServiceTest, здесь - одна попытка
+        lenient().when(categoryService.withCategoryRetry(anyLong(), any(), any(), any()))
+                .thenAnswer(inv -> inv.<Function<Long, ?>>getArgument(3).apply(
+                        categoryService.findCategoryId(inv.getArgument(0), inv.getArgument(1), inv.getArgument(2))));
     }
 
     @Test
     @DisplayName("Добавить доход - успешно")
     void addIncome_Success() {
-        when(userService.getUserEntityById(1L)).thenReturn(testUser);
+        when(userService.getUserReference(1L)).thenReturn(testUser);
         when(incomeRepository.save(any(Income.class))).thenReturn(testIncome);
 
         IncomeResponse result = incomeService.addIncome(1L, incomeRequest);
@@ -87,22 +102,25 @@ class IncomeServiceTest {
         assertThat(result.getCategory()).isEqualTo("Зарплата за март");
         assertThat(result.getDate()).isEqualTo(LocalDate.of(2024, 3, 15));
 
-        verify(userService).getUserEntityById(1L);
+        verify(userService).getUserReference(1L);
         verify(incomeRepository).save(any(Income.class));
     }
 
     @Test
-    @DisplayName("Добавить доход - пользователь не найден")
+    @DisplayName("Добавить доход - пользователь не найден (нарушение FK при INSERT)")
     void addIncome_UserNotFound_ThrowsException() {
-        when(userService.getUserEntityById(1L))
-                .thenThrow(new ResourceNotFoundException("User not found"));
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("fk_incomes_user");
+        when(userService.getUserReference(1L)).thenReturn(testUser);
+        when(incomeRepository.save(any(Income.class))).thenThrow(violation);
+        when(userService.translateWriteFailure(1L, violation))
+                .thenReturn(new ResourceNotFoundException("User not found"));
 
         assertThatThrownBy(() -> incomeService.addIncome(1L, incomeRequest))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("User not found");
 
-        verify(userService).getUserEntityById(1L);
-        verify(incomeRepository, never()).save(any(Income.class));
+        verify(userService).translateWriteFailure(1L, violation);
+        verifyNoInteractions(rollupService);
     }
 
     @Test
@@ -135,11 +153,10 @@ class IncomeServiceTest {
     @Test
     @DisplayName("Получить доходы пользователя - успешно (с Pageable)")
     void getIncomesByUser_WithPageable_Success() {
-        Page<Income> incomePage = new PageImpl<>(Arrays.asList(testIncome));
+        Page<IncomeResponse> incomePage = new PageImpl<>(Arrays.asList(IncomeResponse.from(testIncome)));
         Pageable pageable = PageRequest.of(0, 10);
 
-        when(userService.getUserEntityById(1L)).thenReturn(testUser);
-        when(incomeRepository.findByUserIdOrderByCreatedAtDesc(1L, pageable)).thenReturn(incomePage);
+        when(incomeRepository.findResponsesByUserIdOrderByCreatedAtDesc(1L, pageable)).thenReturn(incomePage);
 
         Page<IncomeResponse> result = incomeService.getIncomesByUser(1L, pageable);
 
@@ -149,26 +166,27 @@ class IncomeServiceTest {
         assertThat(dto.getId()).isEqualTo(1L);
         assertThat(dto.getUserId()).isEqualTo(1L);
 
-        verify(userService).getUserEntityById(1L);
-        verify(incomeRepository).findByUserIdOrderByCreatedAtDesc(1L, pageable);
+        verify(userService).requireExistingUser(1L);
+        verify(incomeRepository).findResponsesByUserIdOrderByCreatedAtDesc(1L, pageable);
     }
 
     @Test
     @DisplayName("Получить доходы за месяц - успешно")
     void getIncomesByUserAndMonth_Success() {
-        Page<Income> incomePage = new PageImpl<>(Arrays.asList(testIncome));
+        Page<IncomeResponse> incomePage = new PageImpl<>(Arrays.asList(IncomeResponse.from(testIncome)));
         Pageable pageable = PageRequest.of(0, 10);
 
-        when(userService.getUserEntityById(1L)).thenReturn(testUser);
-        when(incomeRepository.findByUserIdAndYearAndMonth(1L, 2024, 3, pageable)).thenReturn(incomePage);
+        when(incomeRepository.findResponsesByUserIdAndPeriod(1L,
+                LocalDateTime.of(2024, 3, 1, 0, 0), LocalDateTime.of(2024, 4, 1, 0, 0), pageable)).thenReturn(incomePage);
 
         Page<IncomeResponse> result = incomeService.getIncomesByUserAndMonth(1L, 2024, 3, pageable);
 
         assertThat(result).isNotNull();
         assertThat(result.getContent()).hasSize(1);
 
-        verify(userService).getUserEntityById(1L);
-        verify(incomeRepository).findByUserIdAndYearAndMonth(1L, 2024, 3, pageable);
+        verify(userService).requireExistingUser(1L);
+        verify(incomeRepository).findResponsesByUserIdAndPeriod(1L,
+                LocalDateTime.of(2024, 3, 1, 0, 0), LocalDateTime.of(2024, 4, 1, 0, 0), pageable);
     }
 
     @Test
@@ -224,6 +242,8 @@ class IncomeServiceTest {
 
         verify(incomeRepository).findByIdAndUserId(1L, 1L);
         verify(incomeRepository).delete(testIncome);
+        verify(rollupService).removed(1L, CategoryType.INCOME,
+                testIncome.getDate(), testIncome.getCategory(), testIncome.getAmount());
     }
 
     @Test
@@ -242,7 +262,7 @@ class IncomeServiceTest {
     @Test
     @DisplayName("Добавить доход - проверка преобразования даты (пишем в БД полночь)")
     void addIncome_DateConversion_Success() {
-        when(userService.getUserEntityById(1L)).thenReturn(testUser);
+        when(userService.getUserReference(1L)).thenReturn(testUser);
 
         ArgumentCaptor<Income> incomeCaptor = ArgumentCaptor.forClass(Income.class);
         when(incomeRepository.save(incomeCaptor.capture()))
@@ -0,0 +1,133 @@
+package com.example.fintrackerpro.service;
+
+import com.example.fintrackerpro.dto.RollupDriftReport;
+import com.example.fintrackerpro.entity.category.CategoryType;
+import com.example.fintrackerpro.entity.rollup.MonthlyRollup;
+import com.example.fintrackerpro.entity.rollup.MonthlyRollupId;
+import com.example.fintrackerpro.repository.MonthlyRollupRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("MonthlyRollupService Unit Tests")
+class MonthlyRollupServiceTest {
+
+    private static final LocalDateTime MARCH_15 = LocalDateTime.of(2024, 3, 15, 0, 0);
+    private static final LocalDateTime APRIL_2 = LocalDateTime.of(2024, 4, 2, 0, 0);
+    private static final LocalDate MARCH = LocalDate.of(2024, 3, 1);
+    private static final LocalDate APRIL = LocalDate.of(2024, 4, 1);
+
+    @Mock
+    private MonthlyRollupRepository rollupRepository;
+
+    @Mock
+    private SummaryCache summaryCache;
+
+    @InjectMocks
+    private MonthlyRollupService rollupService;
+
+    @Test
+    @DisplayName("Добавление - +amount и +1 к строке месяца")
+    void added_AppliesPositiveDelta() {
+        rollupService.added(1L, CategoryType.EXPENSE, MARCH_15, "Продукты", new BigDecimal("100.00"));
+
+        verify(rollupRepository).applyDelta(1L, MARCH, "EXPENSE", "Продукты", new BigDecimal("100.00"), 1);
+        verifyNoMoreInteractions(rollupRepository);
+    }
+
+    @Test
+    @DisplayName("Смена подписи - строки переносятся и удаляются, сводки пользователя сбрасываются")
+    void relabel_MergesThenDeletesSourceRows() {
+        rollupService.relabel(1L, CategoryType.EXPENSE, "Кафешки", "Кафе");
+
+        InOrder order = inOrder(rollupRepository, summaryCache);
+        order.verify(rollupRepository).mergeLabel(1L, "EXPENSE", "Кафешки", "Кафе");
+        order.verify(rollupRepository).deleteLabel(1L, "EXPENSE", "Кафешки", "Кафе");
+        order.verify(summaryCache).evictUser(1L);
+        verifyNoMoreInteractions(rollupRepository);
+    }
+
+    @Test
+    @DisplayName("Удаление - -amount, -1 и очистка пустой строки")
+    void removed_AppliesNegativeDeltaAndDropsEmptyRow() {
+        rollupService.removed(1L, CategoryType.INCOME, MARCH_15, null, new BigDecimal("50.00"));
+
+        InOrder order = inOrder(rollupRepository);
+        order.verify(rollupRepository).applyDelta(1L, MARCH, "INCOME", "", new BigDecimal("-50.00"), -1);
+        order.verify(rollupRepository).deleteIfEmpty(1L, MARCH, "INCOME", "");
+    }
+
+    @Test
+    @DisplayName("Изменение суммы в том же месяце - одна дельта без изменения count")
+    void changed_SameRow_AppliesDifferenceOnly() {
+        rollupService.changed(1L, CategoryType.EXPENSE,
+                MARCH_15, "Кафе", new BigDecimal("100.00"),
+                MARCH_15.plusDays(3), "Кафе", new BigDecimal("130.00"));
+
+        verify(rollupRepository).applyDelta(1L, MARCH, "EXPENSE", "Кафе", new BigDecimal("30.00"), 0);
+        verifyNoMoreInteractions(rollupRepository);
+    }
+
+    @Test
+    @DisplayName("Перенос в другой месяц - вычесть из старого, добавить в новый")
+    void changed_MovedMonth_RemovesAndAdds() {
+        rollupService.changed(1L, CategoryType.EXPENSE,
+                MARCH_15, "Кафе", new BigDecimal("100.00"),
+                APRIL_2, "Кафе", new BigDecimal("100.00"));
+
+        verify(rollupRepository).applyDelta(1L, MARCH, "EXPENSE", "Кафе", new BigDecimal("-100.00"), -1);
+        verify(rollupRepository).deleteIfEmpty(1L, MARCH, "EXPENSE", "Кафе");
+        verify(rollupRepository).applyDelta(1L, APRIL, "EXPENSE", "Кафе", new BigDecimal("100.00"), 1);
+        verify(summaryCache).evictMonths(1L, List.of(YearMonth.of(2024, 3)));
+        verify(summaryCache).evictMonths(1L, List.of(YearMonth.of(2024, 4)));
+    }
+
+    @Test
+    @DisplayName("Очистка месяца - удаляет строки rollup этого типа")
+    void monthCleared_DeletesMonthRows() {
+        rollupService.monthCleared(1L, YearMonth.of(2024, 3), CategoryType.INCOME);
+
+        verify(rollupRepository).deleteMonth(1L, MARCH, "INCOME");
+        verify(summaryCache).evictMonths(1L, List.of(YearMonth.of(2024, 3)));
+    }
+
+    @Test
+    @DisplayName("Rebuild - сообщает о расхождениях до пересчёта")
+    void rebuild_ReportsDrift() {
+        MonthlyRollupId cafe = new MonthlyRollupId(1L, MARCH, CategoryType.EXPENSE, "Кафе");
+        MonthlyRollupId work = new MonthlyRollupId(1L, MARCH, CategoryType.INCOME, "Работа");
+        when(rollupRepository.findByIdUserId(1L)).thenReturn(
+                List.of(new MonthlyRollup(cafe, new BigDecimal("90.00"), 2),
+                        new MonthlyRollup(work, new BigDecimal("1000.00"), 1)),
+                List.of(new MonthlyRollup(cafe, new BigDecimal("100.00"), 2),
+                        new MonthlyRollup(work, new BigDecimal("1000.00"), 1)));
+
+        RollupDriftReport report = rollupService.rebuild(1L);
+
+        assertThat(report.isConsistent()).isFalse();
+        assertThat(report.getDrifts()).singleElement().satisfies(d -> {
+            assertThat(d.getCategory()).isEqualTo("Кафе");
+            assertThat(d.getStoredTotal()).isEqualByComparingTo("90.00");
+            assertThat(d.getActualTotal()).isEqualByComparingTo("100.00");
+        });
+
+        InOrder order = inOrder(rollupRepository);
+        order.verify(rollupRepository).deleteAllByUser(1L);
+        order.verify(rollupRepository).insertFromSource(1L);
+        verify(summaryCache).evictUser(1L);
+    }
+}
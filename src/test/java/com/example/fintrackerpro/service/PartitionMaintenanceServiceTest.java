@@ -0,0 +1,63 @@
+package com.example.fintrackerpro.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PartitionMaintenanceServiceTest {
+
+    private static final Clock NOV_2024 = Clock.fixed(Instant.parse("2024-11-15T10:00:00Z"), ZoneOffset.UTC);
+    private static final String SQL = "SELECT create_month_partition(?, ?)";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Партиции на текущий и следующие месяцы для обеих таблиц, через границу года")
+    void ensureFuturePartitions_CurrentAndAhead() {
+        // Given
+        when(jdbcTemplate.queryForObject(eq(SQL), eq(Boolean.class), anyString(), any(LocalDate.class)))
+                .thenReturn(true);
+        PartitionMaintenanceService service = new PartitionMaintenanceService(jdbcTemplate, 2, NOV_2024);
+
+        // When
+        service.ensureFuturePartitions();
+
+        // Then
+        for (String table : PartitionMaintenanceService.PARTITIONED_TABLES) {
+            verify(jdbcTemplate).queryForObject(SQL, Boolean.class, table, LocalDate.of(2024, 11, 1));
+            verify(jdbcTemplate).queryForObject(SQL, Boolean.class, table, LocalDate.of(2024, 12, 1));
+            verify(jdbcTemplate).queryForObject(SQL, Boolean.class, table, LocalDate.of(2025, 1, 1));
+        }
+        verifyNoMoreInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Ошибка БД не пробрасывается из планировщика")
+    void ensureFuturePartitions_DatabaseError() {
+        // Given
+        when(jdbcTemplate.queryForObject(eq(SQL), eq(Boolean.class), anyString(), any(LocalDate.class)))
+                .thenThrow(new DataAccessResourceFailureException("down"));
+        PartitionMaintenanceService service = new PartitionMaintenanceService(jdbcTemplate, 3, NOV_2024);
+
+        // When / Then
+        assertThatCode(service::ensureFuturePartitions).doesNotThrowAnyException();
+        verify(jdbcTemplate, times(1)).queryForObject(anyString(), eq(Boolean.class), any(), any());
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.fintrackerpro.service;
+
+import com.example.fintrackerpro.dto.CursorPage;
+import com.example.fintrackerpro.dto.ExpenseResponse;
+import com.example.fintrackerpro.dto.MonthlySummaryDto;
+import com.example.fintrackerpro.exception.ResourceNotFoundException;
+import com.example.fintrackerpro.repository.ReactiveReadRepository;
+import com.example.fintrackerpro.repository.ReactiveReadRepository.MonthTotalsValue;
+import com.example.fintrackerpro.repository.ReactiveReadRepository.TransactionRow;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveReadServiceTest {
+
+    @Mock
+    private ReactiveReadRepository repository;
+
+    @InjectMocks
+    private ReactiveReadService reactiveReadService;
+
+    @Test
+    @DisplayName("Реактивная сводка за месяц - те же расчёты, что в SummaryService")
+    void getMonthlySummary_Success() {
+        // Given
+        when(repository.getMonthTotals(1L, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 4, 1)))
+                .thenReturn(Mono.just(new MonthTotalsValue(true, new BigDecimal("1000"), new BigDecimal("250"), 2L, 5L)));
+
+        // When
+        MonthlySummaryDto result = reactiveReadService.getMonthlySummary(1L, 2024, 3).block();
+
+        // Then
+        assertThat(result).isNotNull();
+        assertThat(result.getSavings()).isEqualByComparingTo("750");
+        assertThat(result.getSavingsRatePercent()).isEqualByComparingTo("75.00");
+        assertThat(result.getExpenseCount()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Реактивная сводка - пользователь не найден")
+    void getMonthlySummary_UserNotFound() {
+        when(repository.getMonthTotals(anyLong(), any(), any()))
+                .thenReturn(Mono.just(new MonthTotalsValue(false, BigDecimal.ZERO, BigDecimal.ZERO, 0L, 0L)));
+
+        assertThatThrownBy(() -> reactiveReadService.getMonthlySummary(99L, 2024, 3).block())
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Реактивный листинг расходов - курсор на последнюю строку страницы")
+    void getExpensesByUserCursor_NextPage() {
+        // Given
+        LocalDateTime march = LocalDateTime.of(2024, 3, 10, 0, 0);
+        when(repository.findExpensesKeyset(1L, null, null, 3)).thenReturn(Flux.just(
+                new TransactionRow(30L, 1L, BigDecimal.TEN, "Кафе", "Обед", march),
+                new TransactionRow(20L, 1L, BigDecimal.ONE, "Кафе", "Кофе", march),
+                new TransactionRow(10L, 1L, BigDecimal.ONE, "Кафе", "Чай", march.minusDays(1))
+        ));
+
+        // When
+        CursorPage<ExpenseResponse> page = reactiveReadService.getExpensesByUserCursor(1L, null, 2).block();
+
+        // Then
+        assertThat(page).isNotNull();
+        assertThat(page.getContent()).extracting(ExpenseResponse::getId).containsExactly(30L, 20L);
+        assertThat(page.isHasNext()).isTrue();
+        assertThat(KeysetCursor.decode(page.getNextCursor())).isEqualTo(new KeysetCursor(march, 20L));
+    }
+
+    @Test
+    @DisplayName("Реактивные месяцы - формат yyyy-MM")
+    void getUsedMonths_Format() {
+        when(repository.findUsedMonths(1L)).thenReturn(Flux.just(LocalDate.of(2024, 3, 1), LocalDate.of(2023, 12, 1)));
+
+        List<String> months = reactiveReadService.getUsedMonths(1L).block();
+
+        assertThat(months).containsExactly("2024-03", "2023-12");
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.fintrackerpro.service;
+
+import com.example.fintrackerpro.entity.auth.RefreshTokenEntity;
+import com.example.fintrackerpro.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceTest {
+
+    private static final String REFRESH_ID = "3f1c0a4e-5b7d-4c1e-9a2b-0d6e8f4a1c2b";
+    private static final String REFRESH_JWT = "header.payload.signature";
+
+    @Mock
+    private RefreshTokenRepository repo;
+
+    private LocalRefreshRevocationBus bus;
+    private RefreshTokenService service;
+
+    @BeforeEach
+    void setUp() {
+        bus = new LocalRefreshRevocationBus();
+        service = newInstance();
+    }
+
+    private RefreshTokenService newInstance() {
+        return new RefreshTokenService(repo, new RefreshTokenCache(new SimpleMeterRegistry(), 100, 900), bus);
+    }
+
+    @Test
+    @DisplayName("Только что выданный refresh проверяется без чтения refresh_tokens")
+    void validateAndGet_AfterCreate_DoesNotHitDatabase() {
+        // When
+        service.create(REFRESH_ID, 1L, REFRESH_JWT, Instant.now().plus(7, ChronoUnit.DAYS));
+        RefreshTokenService.StoredRefresh stored = service.validateAndGet(REFRESH_ID, REFRESH_JWT);
+
+        // Then
+        assertThat(stored).isNotNull();
+        assertThat(stored.userId()).isEqualTo(1L);
+        verify(repo).save(any(RefreshTokenEntity.class));
+        verify(repo, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("Промах кэша читает refresh_tokens один раз, дальше запись берётся из кэша")
+    void validateAndGet_CacheMiss_LoadsOnce() throws Exception {
+        // Given: сессия создана другим инстансом
+        RefreshTokenEntity entity = storedEntity();
+        when(repo.findById(REFRESH_ID)).thenReturn(Optional.of(entity));
+
+        // When
+        service.validateAndGet(REFRESH_ID, REFRESH_JWT);
+        RefreshTokenService.StoredRefresh stored = service.validateAndGet(REFRESH_ID, REFRESH_JWT);
+
+        // Then
+        assertThat(stored.userId()).isEqualTo(1L);
+        verify(repo, times(1)).findById(REFRESH_ID);
+    }
+
+    @Test
+    @DisplayName("Чужой токен с тем же refresh id отклоняется")
+    void validateAndGet_WrongToken_ReturnsNull() {
+        // Given
+        service.create(REFRESH_ID, 1L, REFRESH_JWT, Instant.now().plus(7, ChronoUnit.DAYS));
+
+        // When & Then
+        assertThat(service.validateAndGet(REFRESH_ID, "other.jwt.token")).isNull();
+        assertThatThrownBy(() -> service.requireActive(REFRESH_ID, "other.jwt.token"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid refresh token");
+    }
+
+    @Test
+    @DisplayName("Отзыв на одном инстансе сразу виден на другом через шину")
+    void revoke_PropagatesToOtherInstances() throws Exception {
+        // Given: обе "ноды" уже держат сессию в кэше
+        RefreshTokenEntity entity = storedEntity();
+        when(repo.findById(REFRESH_ID)).thenReturn(Optional.of(entity));
+        RefreshTokenService other = newInstance();
+        assertThat(service.validateAndGet(REFRESH_ID, REFRESH_JWT)).isNotNull();
+        assertThat(other.validateAndGet(REFRESH_ID, REFRESH_JWT)).isNotNull();
+
+        // When
+        service.revoke(REFRESH_ID);
+
+        // Then: отзыв записан в базу, обе ноды отклоняют токен без повторного чтения
+        assertThat(entity.getRevokedAt()).isNotNull();
+        verify(repo).save(entity);
+        assertThat(service.validateAndGet(REFRESH_ID, REFRESH_JWT)).isNull();
+        assertThat(other.validateAndGet(REFRESH_ID, REFRESH_JWT)).isNull();
+        verify(repo, times(3)).findById(REFRESH_ID);
+    }
+
+    @Test
+    @DisplayName("Сброс после переподключения шины заставляет перечитать сессию из базы")
+    void resync_DropsCachedSessions() throws Exception {
+        // Given: сессия в кэше, затем отозвана в базе, а уведомление потеряно
+        RefreshTokenEntity entity = storedEntity();
+        when(repo.findById(REFRESH_ID)).thenReturn(Optional.of(entity));
+        RefreshTokenCache cache = new RefreshTokenCache(new SimpleMeterRegistry(), 100, 900);
+        RefreshTokenService node = new RefreshTokenService(repo, cache, bus);
+        assertThat(node.validateAndGet(REFRESH_ID, REFRESH_JWT)).isNotNull();
+        entity.setRevokedAt(Instant.now());
+
+        // When
+        cache.resync();
+
+        // Then
+        assertThat(node.validateAndGet(REFRESH_ID, REFRESH_JWT)).isNull();
+        verify(repo, times(2)).findById(REFRESH_ID);
+    }
+
+    private static RefreshTokenEntity storedEntity() throws Exception {
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(REFRESH_JWT.getBytes(StandardCharsets.UTF_8));
+        return RefreshTokenEntity.builder()
+                .id(REFRESH_ID)
+                .userId(1L)
+                .tokenHash(HexFormat.of().formatHex(digest))
+                .createdAt(Instant.now())
+                .expiresAt(Instant.now().plus(7, ChronoUnit.DAYS))
+                .build();
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.fintrackerpro.service;
+
+import com.example.fintrackerpro.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.info.InfoEndpoint;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StatusSnapshotServiceTest {
+
+    private static final Clock NOW = Clock.fixed(Instant.parse("2024-11-15T10:00:00Z"), ZoneOffset.UTC);
+
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private HealthEndpoint healthEndpoint;
+    @Mock
+    private InfoEndpoint infoEndpoint;
+
+    private StatusSnapshotService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new StatusSnapshotService(userRepository, jdbcTemplate, healthEndpoint, infoEndpoint,
+                true, 100_000, NOW);
+    }
+
+    @Test
+    @DisplayName("До первого обновления снимок пустой, гейдж отдаёт NaN, база не трогается")
+    void current_BeforeRefresh_IsUnknown() {
+        // When
+        StatusSnapshotService.Snapshot snapshot = service.current();
+
+        // Then
+        assertThat(snapshot.status()).isEqualTo("UNKNOWN");
+        assertThat(snapshot.usersTotal()).isNull();
+        assertThat(service.usersTotal()).isNaN();
+        verifyNoInteractions(userRepository, jdbcTemplate, healthEndpoint, infoEndpoint);
+    }
+
+    @Test
+    @DisplayName("Большая таблица users: оценка из pg_class без COUNT(*)")
+    void refresh_LargeTable_UsesReltuples() {
+        // Given
+        when(jdbcTemplate.queryForObject(StatusSnapshotService.RELTUPLES_SQL, Long.class)).thenReturn(2_500_000L);
+        when(healthEndpoint.health()).thenReturn(Health.up().build());
+        when(infoEndpoint.info()).thenReturn(Map.of("app", Map.of("version", "1.0")));
+
+        // When
+        service.refresh();
+
+        // Then
+        StatusSnapshotService.Snapshot snapshot = service.current();
+        assertThat(snapshot.usersTotal()).isEqualTo(2_500_000L);
+        assertThat(snapshot.status()).isEqualTo("UP");
+        assertThat(snapshot.info()).containsKey("app");
+        assertThat(snapshot.refreshedAt()).isEqualTo(NOW.instant());
+        assertThat(service.usersTotal()).isEqualTo(2_500_000d);
+        verify(userRepository, never()).count();
+    }
+
+    @Test
+    @DisplayName("Маленькая или непроанализированная таблица считается точно")
+    void refresh_SmallTable_UsesExactCount() {
+        // Given: reltuples = -1 (ANALYZE ещё не было)
+        when(jdbcTemplate.queryForObject(StatusSnapshotService.RELTUPLES_SQL, Long.class)).thenReturn(-1L);
+        when(userRepository.count()).thenReturn(42L);
+        when(healthEndpoint.health()).thenReturn(Health.up().build());
+        when(infoEndpoint.info()).thenReturn(Map.of());
+
+        // When
+        service.refresh();
+
+        // Then
+        assertThat(service.current().usersTotal()).isEqualTo(42L);
+    }
+
+    @Test
+    @DisplayName("Без pg_class (не Postgres) используется COUNT(*)")
+    void refresh_NoPgClass_FallsBackToCount() {
+        // Given
+        when(jdbcTemplate.queryForObject(StatusSnapshotService.RELTUPLES_SQL, Long.class))
+                .thenThrow(new BadSqlGrammarException("reltuples", StatusSnapshotService.RELTUPLES_SQL,
+                        new SQLException("Table \"pg_class\" not found")));
+        when(userRepository.count()).thenReturn(7L);
+        when(healthEndpoint.health()).thenReturn(Health.down().build());
+        when(infoEndpoint.info()).thenReturn(Map.of());
+
+        // When
+        service.refresh();
+
+        // Then
+        assertThat(service.current().usersTotal()).isEqualTo(7L);
+        assertThat(service.current().status()).isEqualTo("DOWN");
+    }
+
+    @Test
+    @DisplayName("Сбой COUNT при недоступной базе: число остаётся прошлым, статус обновляется")
+    void refresh_CountFailure_PublishesNewHealth() {
+        // Given: первый снимок снят, затем база недоступна
+        MutableClock clock = new MutableClock(NOW.instant());
+        service = new StatusSnapshotService(userRepository, jdbcTemplate, healthEndpoint, infoEndpoint,
+                false, 100_000, clock);
+        when(userRepository.count())
+                .thenReturn(10L)
+                .thenThrow(new DataAccessResourceFailureException("connection refused"));
+        when(healthEndpoint.health())
+                .thenReturn(Health.up().build())
+                .thenReturn(Health.down().build());
+        when(infoEndpoint.info()).thenReturn(Map.of());
+        service.refresh();
+        Instant firstRefresh = clock.instant();
+        clock.now = firstRefresh.plusSeconds(30);
+
+        // When
+        service.refresh();
+
+        // Then
+        StatusSnapshotService.Snapshot snapshot = service.current();
+        assertThat(snapshot.status()).isEqualTo("DOWN");
+        assertThat(snapshot.usersTotal()).isEqualTo(10L);
+        assertThat(snapshot.usersCountedAt()).isEqualTo(firstRefresh);
+        assertThat(snapshot.refreshedAt()).isEqualTo(firstRefresh.plusSeconds(30));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Исключение из health даёт DOWN, а не прошлый статус")
+    void refresh_HealthFailure_ReportsDown() {
+        // Given
+        service = new StatusSnapshotService(userRepository, jdbcTemplate, healthEndpoint, infoEndpoint,
+                false, 100_000, NOW);
+        when(userRepository.count()).thenReturn(10L);
+        when(healthEndpoint.health())
+                .thenReturn(Health.up().build())
+                .thenThrow(new IllegalStateException("health contributor failed"));
+        when(infoEndpoint.info()).thenReturn(Map.of("app", Map.of("version", "1.0")));
+        service.refresh();
+
+        // When
+        service.refresh();
+
+        // Then
+        assertThat(service.current().status()).isEqualTo("DOWN");
+        assertThat(service.current().info()).containsKey("app");
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.fintrackerpro.service;
+
+import com.example.fintrackerpro.dto.MonthlySummaryDto;
+import com.example.fintrackerpro.entity.expense.Expense;
+import com.example.fintrackerpro.entity.income.Income;
+import com.example.fintrackerpro.entity.user.User;
+import com.example.fintrackerpro.repository.ExpenseRepository;
+import com.example.fintrackerpro.repository.IncomeRepository;
+import com.example.fintrackerpro.repository.MonthlyRollupRepository;
+import com.example.fintrackerpro.repository.SqlStatementRecorder;
+import com.example.fintrackerpro.repository.SummaryRepository;
+import com.example.fintrackerpro.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("test")
+// Своя in-memory база: общую fintracker_test create-drop другого контекста удаляет при закрытии
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+                "com.example.fintrackerpro.repository.SqlStatementRecorder",
+        "spring.datasource.url=jdbc:h2:mem:summary_query_count;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DATABASE_TO_UPPER=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@DisplayName("SummaryService query count")
+class SummaryServiceQueryCountTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private IncomeRepository incomeRepository;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private SummaryRepository summaryRepository;
+
+    @Autowired
+    private MonthlyRollupRepository rollupRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private SummaryCache summaryCache;
+
+    private SummaryService summaryService;
+
+    @BeforeEach
+    void setUp() {
+        summaryCache = new SummaryCache(new SimpleMeterRegistry(), 100, 60);
+        summaryService = new SummaryService(incomeRepository, expenseRepository, summaryRepository,
+                rollupRepository, summaryCache);
+    }
+
+    @ParameterizedTest(name = "{0} months")
+    @ValueSource(ints = {1, 12, 60})
+    @DisplayName("Итоги за все месяцы - один запрос независимо от количества месяцев")
+    void getAllMonthlySummaries_ConstantQueryCount(int months) {
+        User user = userRepository.save(User.builder()
+                .userName("history" + months)
+                .email("history" + months + "@example.com")
+                .password("secret")
+                .displayCurrency("RUB")
+                .build());
+
+        LocalDate first = LocalDate.of(2020, 1, 15);
+        for (int i = 0; i < months; i++) {
+            LocalDate day = first.plusMonths(i);
+            incomeRepository.save(Income.builder()
+                    .user(user)
+                    .amount(new BigDecimal("1000.00"))
+                    .category("Работа")
+                    .source("Зарплата")
+                    .date(day.atStartOfDay())
+                    .build());
+            expenseRepository.save(Expense.builder()
+                    .user(user)
+                    .amount(new BigDecimal("400.00"))
+                    .category("Продукты")
+                    .description("Магазин")
+                    .date(day.atStartOfDay())
+                    .build());
+        }
+        entityManager.flush();
+        new MonthlyRollupService(rollupRepository, summaryCache).rebuild(user.getId());
+        entityManager.clear();
+        SqlStatementRecorder.reset();
+
+        List<MonthlySummaryDto> result = summaryService.getAllMonthlySummaries(user.getId());
+
+        assertThat(result).hasSize(months);
+        assertThat(result.get(0).getBalance()).isEqualByComparingTo("600.00");
+        assertThat(SqlStatementRecorder.statements()).hasSize(1);
+
+        SqlStatementRecorder.reset();
+        summaryService.getAllMonthlySummaries(user.getId());
+        assertThat(SqlStatementRecorder.statements()).isEmpty();
+    }
+}
@@ -1,26 +1,48 @@
 package com.example.fintrackerpro.service;
 
+import com.example.fintrackerpro.dto.CategoryBreakdownDto;
+import com.example.fintrackerpro.dto.CategoryMatrixDto;
 import com.example.fintrackerpro.dto.MonthlySummaryDto;
+import com.example.fintrackerpro.entity.category.CategoryType;
 import com.example.fintrackerpro.entity.user.User;
+import com.example.fintrackerpro.exception.ResourceNotFoundException;
+import com.example.fintrackerpro.repository.CategoryTotalsRow;
 import com.example.fintrackerpro.repository.ExpenseRepository;
 import com.example.fintrackerpro.repository.IncomeRepository;
+import com.example.fintrackerpro.repository.MonthCategoryTotalRow;
+import com.example.fintrackerpro.repository.MonthTotals;
+import com.example.fintrackerpro.repository.MonthlyRollupRepository;
+import com.example.fintrackerpro.repository.MonthlyTotalsRow;
+import com.example.fintrackerpro.repository.SummaryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("SummaryService Unit Tests")
 class SummaryServiceTest {
 
+    private static final LocalDateTime MARCH_START = LocalDateTime.of(2024, 3, 1, 0, 0);
+    private static final LocalDateTime APRIL_START = LocalDateTime.of(2024, 4, 1, 0, 0);
+
     @Mock
     private ExpenseRepository expenseRepository;
 
@@ -28,7 +50,13 @@ class SummaryServiceTest {
     private IncomeRepository incomeRepository;
 
     @Mock
-    private UserService userService;
+    private SummaryRepository summaryRepository;
+
+    @Mock
+    private MonthlyRollupRepository rollupRepository;
+
+    @Spy
+    private SummaryCache summaryCache = new SummaryCache(new SimpleMeterRegistry(), 100, 60);
 
     @InjectMocks
     private SummaryService summaryService;
@@ -47,11 +75,8 @@ class SummaryServiceTest {
     @DisplayName("Получить сводку за месяц - успешно")
     void getMonthlySummary_Success() {
         // Given
-        when(userService.getUserEntityById(1L)).thenReturn(testUser);
-        when(expenseRepository.getTotalExpenseByUserAndMonth(1L, 2024, 3))
-                .thenReturn(new BigDecimal("1500.00"));
-        when(incomeRepository.getTotalIncomeByUserAndMonth(1L, 2024, 3))
-                .thenReturn(new BigDecimal("60000.00"));
+        when(summaryRepository.getMonthTotals(1L, MARCH_START, APRIL_START))
+                .thenReturn(totals(true, new BigDecimal("60000.00"), new BigDecimal("1500.00")));
 
         // When
         MonthlySummaryDto result = summaryService.getMonthlySummary(1L, 2024, 3);
@@ -64,21 +89,19 @@ class SummaryServiceTest {
         assertThat(result.getSavings()).isEqualByComparingTo(new BigDecimal("58500.00"));
         assertThat(result.getYear()).isEqualTo(2024);
         assertThat(result.getMonth()).isEqualTo(3);
+        assertThat(result.getIncomeCount()).isEqualTo(1);
+        assertThat(result.getExpenseCount()).isEqualTo(1);
 
-        verify(userService).getUserEntityById(1L);
-        verify(expenseRepository).getTotalExpenseByUserAndMonth(1L, 2024, 3);
-        verify(incomeRepository).getTotalIncomeByUserAndMonth(1L, 2024, 3);
+        verify(summaryRepository).getMonthTotals(1L, MARCH_START, APRIL_START);
+        verifyNoInteractions(expenseRepository, incomeRepository);
     }
 
     @Test
     @DisplayName("Сводка за месяц - нет данных (null от репозиториев)")
     void getMonthlySummary_NoData_ReturnsZeros() {
         // Given
-        when(userService.getUserEntityById(1L)).thenReturn(testUser);
-        when(expenseRepository.getTotalExpenseByUserAndMonth(1L, 2024, 3))
-                .thenReturn(null);
-        when(incomeRepository.getTotalIncomeByUserAndMonth(1L, 2024, 3))
-                .thenReturn(null);
+        when(summaryRepository.getMonthTotals(1L, MARCH_START, APRIL_START))
+                .thenReturn(totals(true, null, null));
 
         // When
         MonthlySummaryDto result = summaryService.getMonthlySummary(1L, 2024, 3);
@@ -95,11 +118,8 @@ class SummaryServiceTest {
     @DisplayName("Сводка за месяц - только расходы")
     void getMonthlySummary_OnlyExpenses() {
         // Given
-        when(userService.getUserEntityById(1L)).thenReturn(testUser);
-        when(expenseRepository.getTotalExpenseByUserAndMonth(1L, 2024, 3))
-                .thenReturn(new BigDecimal("2000"));
-        when(incomeRepository.getTotalIncomeByUserAndMonth(1L, 2024, 3))
-                .thenReturn(null);
+        when(summaryRepository.getMonthTotals(1L, MARCH_START, APRIL_START))
+                .thenReturn(totals(true, null, new BigDecimal("2000")));
 
         // When
         MonthlySummaryDto result = summaryService.getMonthlySummary(1L, 2024, 3);
@@ -115,11 +135,8 @@ class SummaryServiceTest {
     @DisplayName("Сводка за месяц - только доходы")
     void getMonthlySummary_OnlyIncome() {
         // Given
-        when(userService.getUserEntityById(1L)).thenReturn(testUser);
-        when(expenseRepository.getTotalExpenseByUserAndMonth(1L, 2024, 3))
-                .thenReturn(null);
-        when(incomeRepository.getTotalIncomeByUserAndMonth(1L, 2024, 3))
-                .thenReturn(new BigDecimal("30000"));
+        when(summaryRepository.getMonthTotals(1L, MARCH_START, APRIL_START))
+                .thenReturn(totals(true, new BigDecimal("30000"), null));
 
         // When
         MonthlySummaryDto result = summaryService.getMonthlySummary(1L, 2024, 3);
@@ -137,11 +154,8 @@ class SummaryServiceTest {
     @DisplayName("Расчёт процента сбережений - корректный")
     void getMonthlySummary_SavingsRateCalculation() {
         // Given
-        when(userService.getUserEntityById(1L)).thenReturn(testUser);
-        when(incomeRepository.getTotalIncomeByUserAndMonth(1L, 2024, 3))
-                .thenReturn(new BigDecimal("100000"));
-        when(expenseRepository.getTotalExpenseByUserAndMonth(1L, 2024, 3))
-                .thenReturn(new BigDecimal("70000"));
+        when(summaryRepository.getMonthTotals(1L, MARCH_START, APRIL_START))
+                .thenReturn(totals(true, new BigDecimal("100000"), new BigDecimal("70000")));
 
         // When
         MonthlySummaryDto result = summaryService.getMonthlySummary(1L, 2024, 3);
@@ -153,11 +167,98 @@ class SummaryServiceTest {
         assertThat(result.getSavingsRatePercent()).isEqualByComparingTo(new BigDecimal("30.00"));
     }
 
+    @Test
+    @DisplayName("Повторная сводка за месяц - из кэша, без запроса")
+    void getMonthlySummary_SecondCallServedFromCache() {
+        // Given
+        when(summaryRepository.getMonthTotals(1L, MARCH_START, APRIL_START))
+                .thenReturn(totals(true, new BigDecimal("1000"), new BigDecimal("400")));
+
+        // When
+        MonthlySummaryDto first = summaryService.getMonthlySummary(1L, 2024, 3);
+        MonthlySummaryDto second = summaryService.getMonthlySummary(1L, 2024, 3);
+
+        // Then
+        assertThat(second).isSameAs(first);
+        verify(summaryRepository, times(1)).getMonthTotals(1L, MARCH_START, APRIL_START);
+    }
+
+    @Test
+    @DisplayName("Инвалидация месяца - следующая сводка читается заново")
+    void getMonthlySummary_AfterEviction_ReloadsMonth() {
+        // Given
+        when(summaryRepository.getMonthTotals(1L, MARCH_START, APRIL_START))
+                .thenReturn(totals(true, new BigDecimal("1000"), new BigDecimal("400")),
+                        totals(true, new BigDecimal("1000"), new BigDecimal("900")));
+        summaryService.getMonthlySummary(1L, 2024, 3);
+
+        // When
+        summaryCache.evictMonths(1L, List.of(YearMonth.of(2024, 3)));
+        MonthlySummaryDto result = summaryService.getMonthlySummary(1L, 2024, 3);
+
+        // Then
+        assertThat(result.getTotalExpenses()).isEqualByComparingTo(new BigDecimal("900"));
+        verify(summaryRepository, times(2)).getMonthTotals(1L, MARCH_START, APRIL_START);
+    }
+
+    @Test
+    @DisplayName("Сводка за месяц - пользователь не найден")
+    void getMonthlySummary_UserNotFound() {
+        // Given
+        when(summaryRepository.getMonthTotals(99L, MARCH_START, APRIL_START))
+                .thenReturn(totals(false, BigDecimal.ZERO, BigDecimal.ZERO));
+
+        // When / Then
+        assertThatThrownBy(() -> summaryService.getMonthlySummary(99L, 2024, 3))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessageContaining("User not found");
+    }
+
+    @Test
+    @DisplayName("Итоги за все месяцы - один агрегирующий запрос")
+    void getAllMonthlySummaries_SingleAggregation() {
+        // Given
+        when(summaryRepository.findMonthlyTotalsByUser(1L)).thenReturn(List.of(
+                row(2024, 4, null, new BigDecimal("500")),
+                row(2024, 3, new BigDecimal("1000"), new BigDecimal("250"))
+        ));
+
+        // When
+        List<MonthlySummaryDto> result = summaryService.getAllMonthlySummaries(1L);
+
+        // Then
+        assertThat(result).hasSize(2);
+        assertThat(result.get(0).getMonth()).isEqualTo(4);
+        assertThat(result.get(0).getTotalIncome()).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(result.get(0).getBalance()).isEqualByComparingTo(new BigDecimal("-500"));
+        assertThat(result.get(1).getMonth()).isEqualTo(3);
+        assertThat(result.get(1).getSavingsRatePercent()).isEqualByComparingTo(new BigDecimal("75.00"));
+
+        verify(summaryRepository).findMonthlyTotalsByUser(1L);
+        verifyNoMoreInteractions(summaryRepository);
+        verifyNoInteractions(expenseRepository, incomeRepository);
+    }
+
+    @Test
+    @DisplayName("Использованные месяцы - из rollup, новые сначала")
+    void getUsedMonths_FromRollup() {
+        // Given
+        when(rollupRepository.findUsedMonthsByUser(1L))
+                .thenReturn(List.of(LocalDate.of(2026, 2, 1), LocalDate.of(2025, 11, 1)));
+
+        // When
+        List<String> result = summaryService.getUsedMonths(1L);
+
+        // Then
+        assertThat(result).containsExactly("2026-02", "2025-11");
+        verifyNoInteractions(expenseRepository, incomeRepository);
+    }
+
     @Test
     @DisplayName("getTotalIncome - успешно")
     void getTotalIncome_Success() {
         // Given
-        when(incomeRepository.getTotalIncomeByUserAndMonth(1L, 2024, 3))
+        when(incomeRepository.getTotalIncomeByUserAndPeriod(1L, MARCH_START, APRIL_START))
                 .thenReturn(new BigDecimal("50000"));
 
         // When
@@ -165,14 +266,14 @@ class SummaryServiceTest {
 
         // Then
         assertThat(result).isEqualByComparingTo(new BigDecimal("50000"));
-        verify(incomeRepository).getTotalIncomeByUserAndMonth(1L, 2024, 3);
+        verify(incomeRepository).getTotalIncomeByUserAndPeriod(1L, MARCH_START, APRIL_START);
     }
 
     @Test
     @DisplayName("getTotalIncome - null от репозитория")
     void getTotalIncome_NullFromRepository() {
         // Given
-        when(incomeRepository.getTotalIncomeByUserAndMonth(1L, 2024, 3))
+        when(incomeRepository.getTotalIncomeByUserAndPeriod(1L, MARCH_START, APRIL_START))
                 .thenReturn(null);
 
         // When
@@ -186,7 +287,7 @@ class SummaryServiceTest {
     @DisplayName("getTotalExpense - успешно")
     void getTotalExpense_Success() {
         // Given
-        when(expenseRepository.getTotalExpenseByUserAndMonth(1L, 2024, 3))
+        when(expenseRepository.getTotalExpenseByUserAndPeriod(1L, MARCH_START, APRIL_START))
                 .thenReturn(new BigDecimal("15000"));
 
         // When
@@ -194,14 +295,14 @@ class SummaryServiceTest {
 
         // Then
         assertThat(result).isEqualByComparingTo(new BigDecimal("15000"));
-        verify(expenseRepository).getTotalExpenseByUserAndMonth(1L, 2024, 3);
+        verify(expenseRepository).getTotalExpenseByUserAndPeriod(1L, MARCH_START, APRIL_START);
     }
 
     @Test
     @DisplayName("getTotalExpense - null от репозитория")
     void getTotalExpense_NullFromRepository() {
         // Given
-        when(expenseRepository.getTotalExpenseByUserAndMonth(1L, 2024, 3))
+        when(expenseRepository.getTotalExpenseByUserAndPeriod(1L, MARCH_START, APRIL_START))
                 .thenReturn(null);
 
         // When
@@ -210,4 +311,204 @@ class SummaryServiceTest {
         // Then
         assertThat(result).isEqualByComparingTo(BigDecimal.ZERO);
     }
+
+    @Test
+    @DisplayName("Категории за месяц - из rollup, доли от суммы своего типа")
+    void getMonthlyCategoryBreakdown_FromRollup() {
+        // Given
+        when(summaryRepository.findCategoryTotalsByMonths(1L, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 4, 1)))
+                .thenReturn(List.of(
+                        category("INCOME", "Работа", "1000", 1),
+                        category("EXPENSE", "Продукты", "300", 5),
+                        category("EXPENSE", "Кафе", "100", 2)
+                ));
+
+        // When
+        CategoryBreakdownDto result = summaryService.getMonthlyCategoryBreakdown(1L, 2024, 3);
+        summaryService.getMonthlyCategoryBreakdown(1L, 2024, 3);
+
+        // Then
+        assertThat(result.getFrom()).isEqualTo(LocalDate.of(2024, 3, 1));
+        assertThat(result.getTo()).isEqualTo(LocalDate.of(2024, 3, 31));
+        assertThat(result.getTotalExpenses()).isEqualByComparingTo("400");
+        assertThat(result.getIncomes()).singleElement()
+                .satisfies(c -> assertThat(c.getSharePercent()).isEqualByComparingTo("100.00"));
+        assertThat(result.getExpenses()).extracting(CategoryBreakdownDto.CategoryShare::getCategory)
+                .containsExactly("Продукты", "Кафе");
+        assertThat(result.getExpenses().get(0).getSharePercent()).isEqualByComparingTo("75.00");
+        assertThat(result.getExpenses().get(0).getCount()).isEqualTo(5);
+
+        // Второй вызов - из кэша
+        verify(summaryRepository, times(1)).findCategoryTotalsByMonths(anyLong(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Категории за период - полуоткрытый интервал по датам включительно")
+    void getCategoryBreakdown_Period() {
+        // Given
+        when(summaryRepository.findCategoryTotalsByPeriod(1L, MARCH_START, LocalDateTime.of(2024, 3, 16, 0, 0)))
+                .thenReturn(List.of());
+
+        // When
+        CategoryBreakdownDto result = summaryService.getCategoryBreakdown(1L,
+                LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 15));
+
+        // Then
+        assertThat(result.getIncomes()).isEmpty();
+        assertThat(result.getExpenses()).isEmpty();
+        assertThat(result.getTotalIncome()).isEqualByComparingTo(BigDecimal.ZERO);
+    }
+
+    @Test
+    @DisplayName("Категории за период - from позже to")
+    void getCategoryBreakdown_InvalidPeriod() {
+        assertThatThrownBy(() -> summaryService.getCategoryBreakdown(1L,
+                LocalDate.of(2024, 3, 15), LocalDate.of(2024, 3, 1)))
+                .isInstanceOf(ResponseStatusException.class);
+        verifyNoInteractions(summaryRepository);
+    }
+
+    @Test
+    @DisplayName("Матрица категория x месяц - плотная, категории по убыванию суммы")
+    void getCategoryMatrix_Dense() {
+        // Given
+        when(summaryRepository.findMonthCategoryTotals(1L, "EXPENSE", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 4, 1)))
+                .thenReturn(List.of(
+                        cell(2024, 1, "Кафе", "10.50"),
+                        cell(2024, 3, "Кафе", "20"),
+                        cell(2024, 2, "Продукты", "300")
+                ));
+
+        // When
+        CategoryMatrixDto result = summaryService.getCategoryMatrix(1L, CategoryType.EXPENSE,
+                YearMonth.of(2024, 1), YearMonth.of(2024, 3));
+
+        // Then
+        assertThat(result.getMonths()).containsExactly("2024-01", "2024-02", "2024-03");
+        assertThat(result.getCategories()).containsExactly("Продукты", "Кафе");
+        assertThat(result.getScale()).isEqualTo(2);
+        assertThat(result.getValues()).containsExactly(
+                0, 30000, 0,
+                1050, 0, 2000);
+    }
+
+    @Test
+    @DisplayName("Матрица категория x месяц - слишком длинный период")
+    void getCategoryMatrix_TooLong() {
+        assertThatThrownBy(() -> summaryService.getCategoryMatrix(1L, CategoryType.EXPENSE,
+                YearMonth.of(2000, 1), YearMonth.of(2024, 1)))
+                .isInstanceOf(ResponseStatusException.class);
+        verifyNoInteractions(summaryRepository);
+    }
+
+    private static MonthCategoryTotalRow cell(int year, int month, String category, String total) {
+        return new MonthCategoryTotalRow() {
+            @Override
+            public Integer getYear() {
+                return year;
+            }
+
+            @Override
+            public Integer getMonth() {
+                return month;
+            }
+
+            @Override
+            public String getCategory() {
+                return category;
+            }
+
+            @Override
+            public BigDecimal getTotal() {
+                return new BigDecimal(total);
+            }
+        };
+    }
+
+    private static CategoryTotalsRow category(String type, String category, String total, long count) {
+        return new CategoryTotalsRow() {
+            @Override
+            public String getType() {
+                return type;
+            }
+
+            @Override
+            public String getCategory() {
+                return category;
+            }
+
+            @Override
+            public BigDecimal getTotal() {
+                return new BigDecimal(total);
+            }
+
+            @Override
+            public Long getCount() {
+                return count;
+            }
+        };
+    }
+
+    private static MonthTotals totals(boolean userExists, BigDecimal income, BigDecimal expenses) {
+        return new MonthTotals() {
+            @Override
+            public Boolean getUserExists() {
+                return userExists;
+            }
+
+            @Override
+            public BigDecimal getTotalIncome() {
+                return income;
+            }
+
+            @Override
+            public BigDecimal getTotalExpenses() {
+                return expenses;
+            }
+
+            @Override
+            public Long getIncomeCount() {
+                return income != null ? 1L : 0L;
+            }
+
+            @Override
+            public Long getExpenseCount() {
+                return expenses != null ? 1L : 0L;
+            }
+        };
+    }
+
+    private static MonthlyTotalsRow row(int year, int month, BigDecimal income, BigDecimal expenses) {
+        return new MonthlyTotalsRow() {
+            @Override
+            public Integer getYear() {
+                return year;
+            }
+
+            @Override
+            public Integer getMonth() {
+                return month;
+            }
+
+            @Override
+            public BigDecimal getTotalIncome() {
+                return income;
+            }
+
+            @Override
+            public BigDecimal getTotalExpenses() {
+                return expenses;
+            }
+
+            @Override
+            public Long getIncomeCount() {
+                return income != null ? 1L : 0L;
+            }
+
+            @Override
+            public Long getExpenseCount() {
+                return expenses != null ? 1L : 0L;
+            }
+        };
+    }
 }
@@ -0,0 +1,118 @@
+package com.example.fintrackerpro.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenReaperServiceTest {
+
+    private static final Clock NOW = Clock.fixed(Instant.parse("2024-11-15T10:00:00Z"), ZoneOffset.UTC);
+    private static final Timestamp NOW_TS = Timestamp.from(NOW.instant());
+
+    private static final String REFRESH_EXPIRED = TokenReaperService.QUERIES.get(0).sql();
+    private static final String REFRESH_REVOKED = TokenReaperService.QUERIES.get(1).sql();
+    private static final String RESET_EXPIRED = TokenReaperService.QUERIES.get(2).sql();
+    private static final String RESET_USED = TokenReaperService.QUERIES.get(3).sql();
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private SimpleMeterRegistry registry;
+    private TokenReaperService reaper;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        reaper = new TokenReaperService(jdbcTemplate, registry, 100, 0, 5, NOW);
+    }
+
+    @Test
+    @DisplayName("Удаляет пачками, пока пачка полная, и публикует метрики")
+    void reap_DeletesInBatchesAndReportsGauges() {
+        // Given: 100 + 100 + 30 просроченных refresh, 7 отозванных, reset-токенов нет
+        when(jdbcTemplate.update(REFRESH_EXPIRED, NOW_TS, 100)).thenReturn(100, 100, 30);
+        when(jdbcTemplate.update(REFRESH_REVOKED, 100)).thenReturn(7);
+        when(jdbcTemplate.update(RESET_EXPIRED, NOW_TS, 100)).thenReturn(0);
+        when(jdbcTemplate.update(RESET_USED, 100)).thenReturn(0);
+        when(jdbcTemplate.queryForObject(TokenReaperService.ROWS_ESTIMATE_SQL, Long.class, "refresh_tokens"))
+                .thenReturn(42L);
+        when(jdbcTemplate.queryForObject(TokenReaperService.ROWS_ESTIMATE_SQL, Long.class, "password_reset_tokens"))
+                .thenReturn(3L);
+
+        // When
+        reaper.reap();
+
+        // Then
+        verify(jdbcTemplate, times(3)).update(REFRESH_EXPIRED, NOW_TS, 100);
+        assertThat(gauge("fintracker_auth_tokens_reaped_last", "refresh_tokens")).isEqualTo(237);
+        assertThat(gauge("fintracker_auth_tokens_reaped_last", "password_reset_tokens")).isZero();
+        assertThat(gauge("fintracker_auth_tokens_rows", "refresh_tokens")).isEqualTo(42);
+        assertThat(gauge("fintracker_auth_tokens_rows", "password_reset_tokens")).isEqualTo(3);
+        assertThat(registry.get("fintracker_auth_tokens_reaped_total").tag("table", "refresh_tokens")
+                .counter().count()).isEqualTo(237);
+    }
+
+    @Test
+    @DisplayName("За один запуск не больше max-batches пачек")
+    void reap_StopsAtMaxBatches() {
+        when(jdbcTemplate.update(REFRESH_EXPIRED, NOW_TS, 100)).thenReturn(100);
+        when(jdbcTemplate.update(anyString(), eq(100))).thenReturn(0);
+        when(jdbcTemplate.update(RESET_EXPIRED, NOW_TS, 100)).thenReturn(0);
+        when(jdbcTemplate.queryForObject(eq(TokenReaperService.ROWS_ESTIMATE_SQL), eq(Long.class), anyString()))
+                .thenReturn(1_000L);
+
+        reaper.reap();
+
+        verify(jdbcTemplate, times(5)).update(REFRESH_EXPIRED, NOW_TS, 100);
+        assertThat(gauge("fintracker_auth_tokens_reaped_last", "refresh_tokens")).isEqualTo(500);
+    }
+
+    @Test
+    @DisplayName("Ошибка БД не пробрасывается из планировщика")
+    void reap_DatabaseError() {
+        when(jdbcTemplate.update(REFRESH_EXPIRED, NOW_TS, 100))
+                .thenThrow(new DataAccessResourceFailureException("down"));
+
+        assertThatCode(reaper::reap).doesNotThrowAnyException();
+        assertThat(gauge("fintracker_auth_tokens_reaped_last", "refresh_tokens")).isZero();
+    }
+
+    @Test
+    @DisplayName("Без pg_class (не Postgres) размер таблиц не считается через COUNT(*)")
+    void reap_NoPgClass_SkipsRowEstimate() {
+        when(jdbcTemplate.update(anyString(), eq(NOW_TS), eq(100))).thenReturn(0);
+        when(jdbcTemplate.update(anyString(), eq(100))).thenReturn(0);
+        when(jdbcTemplate.queryForObject(eq(TokenReaperService.ROWS_ESTIMATE_SQL), eq(Long.class), anyString()))
+                .thenThrow(new BadSqlGrammarException("reltuples", TokenReaperService.ROWS_ESTIMATE_SQL,
+                        new SQLException("Table \"pg_class\" not found")));
+
+        assertThatCode(reaper::reap).doesNotThrowAnyException();
+        assertThat(gauge("fintracker_auth_tokens_rows", "refresh_tokens")).isZero();
+        verify(jdbcTemplate, never()).queryForObject(startsWith("SELECT COUNT(*)"), eq(Long.class));
+    }
+
+    private double gauge(String name, String table) {
+        return registry.get(name).tag("table", table).gauge().value();
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.fintrackerpro.service;
+
+import com.example.fintrackerpro.entity.category.CategoryType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Выгрузка большого синтетического набора. Запускается отдельным прогоном surefire
+ * с -Xmx64m (execution memory-bounded-tests в pom.xml): если writer начнёт
+ * копить строки в памяти, тест упадёт с OutOfMemoryError.
+ * Второй тест гоняет весь путь TransactionExportService (запрос, fetchSize, read-only транзакция)
+ * по файловой H2: in-memory база сама заняла бы heap, а большой результат H2 сбрасывает на диск.
+ */
+@Tag("memory")
+@DisplayName("Export memory bound")
+class TransactionExportMemoryTest {
+
+    private static final int ROWS = 300_000;
+    private static final int DB_EXPENSES = 200_000;
+    private static final int DB_INCOMES = 50_000;
+    private static final int INSERT_BATCH = 50_000;
+
+    @TempDir
+    static Path dbDir;
+
+    private static TransactionExportService exportService;
+
+    @BeforeAll
+    static void createDatabase() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:file:" + dbDir.resolve("export") + ";MODE=PostgreSQL;DATABASE_TO_UPPER=false"
+                        + ";CACHE_SIZE=4096;MAX_MEMORY_ROWS=10000", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE expenses (id BIGINT PRIMARY KEY, user_id BIGINT NOT NULL, date TIMESTAMP NOT NULL, "
+                + "amount NUMERIC(12, 2) NOT NULL, category VARCHAR(100), description VARCHAR(500))");
+        jdbc.execute("CREATE TABLE incomes (id BIGINT PRIMARY KEY, user_id BIGINT NOT NULL, date TIMESTAMP NOT NULL, "
+                + "amount NUMERIC(12, 2) NOT NULL, category VARCHAR(100), source VARCHAR(255))");
+        // Пачками, каждая в своей транзакции: один огромный INSERT держал бы незакоммиченные строки в памяти
+        for (int from = 1; from <= DB_EXPENSES; from += INSERT_BATCH) {
+            jdbc.update("INSERT INTO expenses SELECT X, 1, DATEADD(DAY, MOD(X, 9000), TIMESTAMP '2000-01-01 00:00:00'), "
+                    + "(100000 + X) / 100.0, 'Продукты', 'Покупка №' || X FROM SYSTEM_RANGE(?, ?)",
+                    from, from + INSERT_BATCH - 1);
+        }
+        for (int from = 1; from <= DB_INCOMES; from += INSERT_BATCH) {
+            jdbc.update("INSERT INTO incomes SELECT X, 1, DATEADD(DAY, MOD(X, 9000), TIMESTAMP '2000-01-01 00:00:00'), "
+                    + "(500000 + X) / 100.0, 'Работа', 'Зарплата' FROM SYSTEM_RANGE(?, ?)",
+                    from, from + INSERT_BATCH - 1);
+        }
+        // Чужие строки в выгрузку не попадают
+        jdbc.update("INSERT INTO expenses SELECT X, 2, TIMESTAMP '2024-01-01 00:00:00', 1.00, 'Кафе', NULL "
+                + "FROM SYSTEM_RANGE(?, ?)", DB_EXPENSES + 1, DB_EXPENSES + 1000);
+
+        exportService = new TransactionExportService(jdbc, new DataSourceTransactionManager(dataSource),
+                mock(UserService.class), new ObjectMapper());
+    }
+
+    @ParameterizedTest
+    @EnumSource(TransactionFileFormat.class)
+    @DisplayName("300 тыс. строк под маленьким heap")
+    void export_LargeDataset_FlatHeap(TransactionFileFormat format) throws Exception {
+        CountingOutputStream out = new CountingOutputStream();
+        LocalDate start = LocalDate.of(2000, 1, 1);
+
+        try (TransactionExportWriter writer = TransactionExportWriter.create(format, out, new ObjectMapper())) {
+            for (int i = 0; i < ROWS; i++) {
+                writer.write(new TransactionExportWriter.Row(
+                        CategoryType.EXPENSE, i, start.plusDays(i % 9000),
+                        BigDecimal.valueOf(100_000 + i, 2), "Продукты", "Покупка №" + i, null));
+            }
+        }
+
+        // ~70+ байт на строку: ответ целиком в heap 64m не поместился бы
+        assertThat(out.count).isGreaterThan(ROWS * 60L);
+    }
+
+    @ParameterizedTest
+    @EnumSource(TransactionFileFormat.class)
+    @DisplayName("250 тыс. строк из базы через TransactionExportService под маленьким heap")
+    void export_FromDatabase_FlatHeap(TransactionFileFormat format) throws Exception {
+        CountingOutputStream out = new CountingOutputStream();
+
+        exportService.export(1L, TransactionExportService.typesOf("all"), format, out);
+
+        int header = format == TransactionFileFormat.CSV ? 1 : 0;
+        assertThat(out.lines).isEqualTo(DB_EXPENSES + DB_INCOMES + header);
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+        private long lines;
+
+        @Override
+        public void write(int b) {
+            count++;
+            if (b == '\n') {
+                lines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') {
+                    lines++;
+                }
+            }
+        }
+    }
+}
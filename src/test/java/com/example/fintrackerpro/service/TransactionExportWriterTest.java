@@ -0,0 +1,59 @@
+package com.example.fintrackerpro.service;
+
+import com.example.fintrackerpro.entity.category.CategoryType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("TransactionExportWriter Unit Tests")
+class TransactionExportWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static final TransactionExportWriter.Row EXPENSE = new TransactionExportWriter.Row(
+            CategoryType.EXPENSE, 10L, LocalDate.of(2024, 3, 15), new BigDecimal("1500.50"),
+            "Продукты", "Магазин, \"у дома\"", null);
+    private static final TransactionExportWriter.Row INCOME = new TransactionExportWriter.Row(
+            CategoryType.INCOME, 7L, LocalDate.of(2024, 3, 1), new BigDecimal("50000.00"),
+            "Работа", null, "Зарплата");
+
+    @Test
+    @DisplayName("CSV - заголовок как у импорта, экранирование кавычек и запятых")
+    void csv_WritesHeaderAndEscapes() throws Exception {
+        String csv = write(TransactionFileFormat.CSV);
+
+        assertThat(csv.split("\n")).containsExactly(
+                "type,id,date,amount,category,description,source",
+                "EXPENSE,10,2024-03-15,1500.50,Продукты,\"Магазин, \"\"у дома\"\"\",",
+                "INCOME,7,2024-03-01,50000.00,Работа,,Зарплата");
+    }
+
+    @Test
+    @DisplayName("JSON Lines - один объект на строку")
+    void jsonLines_OneObjectPerLine() throws Exception {
+        String jsonl = write(TransactionFileFormat.JSONL);
+
+        String[] lines = jsonl.split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readTree(lines[0]).get("description").asText()).isEqualTo("Магазин, \"у дома\"");
+        assertThat(objectMapper.readTree(lines[0]).get("amount").decimalValue()).isEqualByComparingTo("1500.50");
+        assertThat(objectMapper.readTree(lines[1]).get("source").asText()).isEqualTo("Зарплата");
+        assertThat(objectMapper.readTree(lines[1]).has("description")).isFalse();
+    }
+
+    private String write(TransactionFileFormat format) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (TransactionExportWriter writer = TransactionExportWriter.create(format, out, objectMapper)) {
+            writer.write(EXPENSE);
+            writer.write(INCOME);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.fintrackerpro.service;
+
+import com.example.fintrackerpro.dto.ImportReport;
+import com.example.fintrackerpro.entity.category.CategoryType;
+import com.example.fintrackerpro.exception.ResourceNotFoundException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TransactionImportService Unit Tests")
+class TransactionImportServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private MonthlyRollupService rollupService;
+
+    @Mock
+    private CategoryService categoryService;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private TransactionImportService importService;
+
+    private final List<Integer> batchSizes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // Размер пачки фиксируем в момент вызова: после batchUpdate буфер очищается
+        lenient().when(jdbcTemplate.batchUpdate(anyString(), any(BatchPreparedStatementSetter.class)))
+                .thenAnswer(inv -> {
+                    batchSizes.add(inv.<BatchPreparedStatementSetter>getArgument(1).getBatchSize());
+                    return new int[0];
+                });
+    }
+
+    @Test
+    @DisplayName("CSV с ';' - валидные строки вставлены, ошибочные в отчёте")
+    void importCsv_SkipsInvalidRows() throws Exception {
+        String csv = """
+                date;amount;category;description
+                2024-03-15;1500,50;Продукты;"Магазин; у дома"
+                2024-03-16;-10;Кафе;Кофе
+                2024-04-01;200;Транспорт;Метро
+                """;
+
+        ImportReport report = importService.importTransactions(1L, CategoryType.EXPENSE,
+                TransactionFileFormat.CSV, body(csv));
+
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(report.getFailed()).isEqualTo(1);
+        assertThat(report.getErrors()).singleElement().satisfies(e -> {
+            assertThat(e.getLine()).isEqualTo(3);
+            assertThat(e.getMessage()).contains("amount");
+        });
+        assertThat(batchSizes).containsExactly(2);
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO expenses"), any(BatchPreparedStatementSetter.class));
+        verify(rollupService).addedAll(eq(1L), eq(CategoryType.EXPENSE), any(MonthlyRollupService.Batch.class));
+    }
+
+    @Test
+    @DisplayName("JSON Lines - доходы, битый JSON попадает в отчёт")
+    void importJsonLines_Incomes() throws Exception {
+        String jsonl = """
+                {"date":"2024-03-01","amount":50000,"category":"Работа","source":"Зарплата"}
+                {"date":"2024-03-02","amount":"100.00","category":"Работа"
+                {"date":"2024-03-05","amount":"100.00","category":"Подработка","source":"Фриланс"}
+                """;
+
+        ImportReport report = importService.importTransactions(1L, CategoryType.INCOME,
+                TransactionFileFormat.JSONL, body(jsonl));
+
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(report.getFailed()).isEqualTo(1);
+        assertThat(report.getErrors().get(0).getLine()).isEqualTo(2);
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO incomes"), any(BatchPreparedStatementSetter.class));
+    }
+
+    @Test
+    @DisplayName("Большой файл - вставка пачками по BATCH_SIZE, список ошибок ограничен")
+    void importCsv_FlushesInBatches() throws Exception {
+        StringBuilder csv = new StringBuilder("date,amount,category,description\n");
+        int valid = TransactionImportService.BATCH_SIZE * 2 + 500;
+        for (int i = 0; i < valid; i++) {
+            csv.append("2024-03-15,10.00,Продукты,Покупка\n");
+        }
+        int invalid = TransactionImportService.MAX_REPORTED_ERRORS + 5;
+        for (int i = 0; i < invalid; i++) {
+            csv.append("не-дата,10.00,Продукты,Покупка\n");
+        }
+
+        ImportReport report = importService.importTransactions(1L, CategoryType.EXPENSE,
+                TransactionFileFormat.CSV, body(csv.toString()));
+
+        assertThat(report.getImported()).isEqualTo(valid);
+        assertThat(report.getFailed()).isEqualTo(invalid);
+        assertThat(report.getErrors()).hasSize(TransactionImportService.MAX_REPORTED_ERRORS);
+        assertThat(report.isErrorsTruncated()).isTrue();
+        assertThat(batchSizes).containsExactly(
+                TransactionImportService.BATCH_SIZE, TransactionImportService.BATCH_SIZE, 500);
+    }
+
+    @Test
+    @DisplayName("Импорт - пользователь не найден")
+    void import_UserNotFound() {
+        doThrow(new ResourceNotFoundException("User not found with id: 99")).when(userService).requireExistingUser(99L);
+
+        assertThatThrownBy(() -> importService.importTransactions(99L, CategoryType.EXPENSE,
+                TransactionFileFormat.CSV, body("date,amount,category,description\n")))
+                .isInstanceOf(ResourceNotFoundException.class);
+        verifyNoInteractions(jdbcTemplate, rollupService);
+    }
+
+    private static InputStream body(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
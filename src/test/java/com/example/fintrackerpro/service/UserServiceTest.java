@@ -5,12 +5,17 @@ import com.example.fintrackerpro.entity.user.UserDto;
 import com.example.fintrackerpro.entity.user.UserRegistrationRequest;
 import com.example.fintrackerpro.exception.ResourceNotFoundException;
 import com.example.fintrackerpro.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.sql.SQLException;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
@@ -25,6 +30,7 @@ class UserServiceTest {
     @Mock PasswordEncoder passwordEncoder;
     @Mock MetricsService metricsService;
     @Mock CategoryService categoryService;
+    @Spy UserExistenceCache userExistenceCache = new UserExistenceCache(new SimpleMeterRegistry(), 100, 300);
 
     @InjectMocks UserService userService;
 
@@ -139,4 +145,82 @@ class UserServiceTest {
         verifyNoMoreInteractions(userRepository);
         verifyNoInteractions(passwordEncoder);
     }
+
+    @Test
+    @DisplayName("requireExistingUser - EXISTS только при первом обращении")
+    void requireExistingUser_cachesLiveUser() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        userService.requireExistingUser(1L);
+        userService.requireExistingUser(1L);
+
+        verify(userRepository, times(1)).existsById(1L);
+        verifyNoMoreInteractions(userRepository);
+    }
+
+    @Test
+    @DisplayName("requireExistingUser - после deleteUser пользователь снова проверяется в БД")
+    void requireExistingUser_afterDelete_throws() {
+        when(userRepository.existsById(1L)).thenReturn(true, true, false);
+
+        userService.requireExistingUser(1L);
+        userService.deleteUser(1L);
+
+        assertThatThrownBy(() -> userService.requireExistingUser(1L))
+                .isInstanceOf(ResourceNotFoundException.class);
+        verify(userRepository).deleteById(1L);
+        verify(userRepository, times(3)).existsById(1L);
+    }
+
+    @Test
+    @DisplayName("deleteUser - кэш сбрасывается только после коммита удаления")
+    void deleteUser_invalidatesCacheAfterCommit() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        userService.requireExistingUser(1L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            userService.deleteUser(1L);
+            // До коммита запись остаётся: сброс сейчас вернул бы её параллельным existsById
+            assertThat(userExistenceCache.isKnownLive(1L)).isTrue();
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertThat(userExistenceCache.isKnownLive(1L)).isFalse();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("translateWriteFailure - нарушение FK на users даёт 404")
+    void translateWriteFailure_foreignKeyViolation() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        userService.requireExistingUser(1L);
+        DataIntegrityViolationException e = new DataIntegrityViolationException("insert failed",
+                new SQLException("violates foreign key constraint \"fk_expenses_user\"", "23503"));
+
+        assertThat(userService.translateWriteFailure(1L, e)).isInstanceOf(ResourceNotFoundException.class);
+        assertThat(userExistenceCache.isKnownLive(1L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("translateWriteFailure - нарушение FK на categories не означает, что пользователя нет")
+    void translateWriteFailure_categoryForeignKeyViolation() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        userService.requireExistingUser(1L);
+        DataIntegrityViolationException e = new DataIntegrityViolationException("insert failed",
+                new SQLException("violates foreign key constraint \"fk_expenses_category\"", "23503"));
+
+        assertThat(userService.translateWriteFailure(1L, e)).isSameAs(e);
+        assertThat(userExistenceCache.isKnownLive(1L)).isTrue();
+    }
+
+    @Test
+    @DisplayName("translateWriteFailure - прочие нарушения целостности не трогаем")
+    void translateWriteFailure_otherViolation() {
+        DataIntegrityViolationException e = new DataIntegrityViolationException("insert failed",
+                new SQLException("null value in column \"amount\"", "23502"));
+
+        assertThat(userService.translateWriteFailure(1L, e)).isSameAs(e);
+    }
 }